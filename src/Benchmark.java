@@ -0,0 +1,443 @@
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Micro benchmarks for the level, collision and rendering paths on large generated levels.
+ * Runs headless; start it with the name of a section (e.g. "generate") or without
+ * arguments to run all of them.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Benchmark {
+
+    // DATA FIELDS of the class
+    private static final int[] SCREENS = {1, 10, 100, 300};
+    private static final long SEED = 42;
+
+
+    /**
+     * Runs the selected benchmark sections.
+     * @param args Names of the sections to run, all of them when empty.
+     */
+    public static void main(String[] args) {
+        ArrayList<Stage> stages = Main.createStages();
+        if (shouldRun(args, "generate")) {
+            benchmarkGeneration(stages);
+        }
+        if (shouldRun(args, "collision")) {
+            benchmarkCollision(stages);
+        }
+        if (shouldRun(args, "bitmap")) {
+            benchmarkBitmap(stages);
+        }
+        if (shouldRun(args, "players")) {
+            benchmarkPlayers(stages);
+        }
+        if (shouldRun(args, "pacing")) {
+            benchmarkPacing(stages);
+        }
+        if (shouldRun(args, "render")) {
+            benchmarkRender(stages);
+        }
+        if (shouldRun(args, "env")) {
+            benchmarkEnv(stages);
+        }
+        if (shouldRun(args, "events")) {
+            benchmarkEvents();
+        }
+        if (shouldRun(args, "maps")) {
+            benchmarkMaps(stages);
+        }
+        if (shouldRun(args, "substeps")) {
+            benchmarkSubsteps(stages);
+        }
+        if (shouldRun(args, "hud")) {
+            benchmarkHud(stages);
+        }
+    }
+
+    /**
+     * Measures how long it takes to generate levels of different sizes.
+     * @param stages Stages the levels are generated for.
+     */
+    private static void benchmarkGeneration(ArrayList<Stage> stages) {
+        System.out.println("== generate ==");
+        LevelGenerator generator = new LevelGenerator(SEED, stages);
+        for (int screens : SCREENS) {
+            Level[] level = new Level[1];
+            double nanos = time(() -> level[0] = generator.generate(screens), 20);
+            System.out.printf("%5d screens: %6d obstacles %6d spikes  %8.3f ms%n",
+                    screens, level[0].getObstacles().length, level[0].getSpikes().length, nanos / 1e6);
+        }
+    }
+
+    /**
+     * Measures one collision pass (gravity, spikes, obstacles, door, button) on levels of different sizes.
+     * @param stages Stages the levels are generated for.
+     */
+    private static void benchmarkCollision(ArrayList<Stage> stages) {
+        System.out.println("== collision ==");
+        for (int screens : SCREENS) {
+            Level level = new LevelGenerator(SEED, stages).generate(screens);
+            Game game = new Game(stages, level);
+            Player player = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
+            Map map = new Map(stages.get(0), player, game, level);
+            double nanos = time(() -> {
+                map.movePlayer(0, 'R');
+                map.handleCollisions();
+            }, 200_000);
+            System.out.printf("%5d screens: %6d obstacles  %10.1f ns/tick%n",
+                    screens, level.getObstacles().length, nanos);
+        }
+    }
+
+    /**
+     * Compares the collision bitmap with the rectangle lists: single occupancy queries at
+     * random player sized boxes and full collision ticks, and prints where the bitmap starts to win.
+     * @param stages Stages the levels are generated for.
+     */
+    private static void benchmarkBitmap(ArrayList<Stage> stages) {
+        System.out.println("== bitmap (cell size 1) ==");
+        System.out.println("screens  rects   hazard list   hazard bits     tick list     tick bits");
+        int crossover = -1;
+        for (int screens : SCREENS) {
+            Level level = new LevelGenerator(SEED, stages).generate(screens);
+            CollisionBitmap bitmap = new CollisionBitmap(level, 1);
+            Map helper = new Map(stages.get(0), new Player(0, 0), new Game(stages, level), level);
+
+            // Random player sized boxes over the level
+            SplittableRandom random = new SplittableRandom(SEED);
+            double[] xs = new double[1024];
+            double[] ys = new double[1024];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = random.nextDouble() * level.getWidth();
+                ys[i] = 120 + random.nextDouble() * (level.getHeight() - 120);
+            }
+            int[] hits = new int[1];
+            int[][] spikes = level.getSpikes();
+            double listQuery = time(() -> {
+                for (int i = 0; i < xs.length; i++) {
+                    for (int[] spike : spikes) {
+                        if (helper.checkCollision(xs[i], ys[i], 20, 20, spike)) {
+                            hits[0]++;
+                            break;
+                        }
+                    }
+                }
+            }, 200) / xs.length;
+            double bitsQuery = time(() -> {
+                for (int i = 0; i < xs.length; i++) {
+                    if (bitmap.touchesHazard(xs[i] - 10, ys[i] - 10, xs[i] + 10, ys[i] + 10)) {
+                        hits[0]++;
+                    }
+                }
+            }, 200) / xs.length;
+
+            double listTick = collisionTick(stages, level, 0);
+            double bitsTick = collisionTick(stages, level, 1);
+            if (crossover < 0 && bitsTick < listTick) {
+                crossover = screens;
+            }
+            System.out.printf("%7d %6d %10.1f ns %10.1f ns %10.1f ns %10.1f ns%n",
+                    screens, level.getObstacles().length + spikes.length, listQuery, bitsQuery, listTick, bitsTick);
+        }
+        System.out.println(crossover < 0 ? "bitmap tick never faster in this range"
+                                         : "bitmap tick faster from " + crossover + " screens on");
+    }
+
+    /**
+     * Measures full ticks (bot input and collisions) with many players on one level.
+     * @param stages Stages the level is generated for.
+     */
+    private static void benchmarkPlayers(ArrayList<Stage> stages) {
+        System.out.println("== players (10 screens) ==");
+        Level level = new LevelGenerator(SEED, stages).generate(10);
+        for (int count : new int[]{1, 8, 32, 64}) {
+            Player[] players = new Player[count];
+            Bot[] bots = new Bot[count];
+            for (int i = 0; i < count; i++) {
+                players[i] = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
+                bots[i] = new Bot(i);
+            }
+            Map map = new Map(stages.get(0), players, 0, new Game(stages, level), level);
+            double nanos = time(() -> {
+                for (int i = 0; i < count; i++) {
+                    bots[i].control(map, i, players[i]);
+                }
+                map.handleCollisions();
+            }, 20_000);
+            System.out.printf("%5d players: %10.1f ns/tick %8.1f ns/player%n", count, nanos, nanos / count);
+        }
+    }
+
+    /**
+     * Runs paced frames of collision work at different frame rates and prints
+     * the measured frame period and missed deadlines.
+     * @param stages Stages the level is generated for.
+     */
+    private static void benchmarkPacing(ArrayList<Stage> stages) {
+        System.out.println("== pacing (200 frames) ==");
+        Level level = new LevelGenerator(SEED, stages).generate(10);
+        Map map = new Map(stages.get(0), new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]),
+                new Game(stages, level), level);
+        for (int hz : new int[]{50, 60, 120, 144, 0}) {
+            FramePacer pacer = new FramePacer(hz);
+            long start = System.nanoTime();
+            for (int frame = 0; frame < 200; frame++) {
+                map.movePlayer(0, 'R');
+                map.handleCollisions();
+                pacer.frameShown();
+                pacer.sync();
+            }
+            double period = (System.nanoTime() - start) / 200.0;
+            System.out.printf("%8.3f ms/frame  %s%n", period / 1e6, pacer.report());
+        }
+    }
+
+    /**
+     * Draws the visible part of a generated level with each renderer backend.
+     * Backends that need a window are skipped when there is no display.
+     * @param stages Stages the level is generated for.
+     */
+    private static void benchmarkRender(ArrayList<Stage> stages) {
+        System.out.println("== render (10 screens, map only) ==");
+        Level level = new LevelGenerator(SEED, stages).generate(10);
+        Player player = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
+        Map map = new Map(stages.get(0), player, new Game(stages, level), level);
+        Camera camera = new Camera(800, 600, 120);
+
+        ArrayList<Renderer> renderers = new ArrayList<Renderer>();
+        renderers.add(new NullRenderer());
+        renderers.add(new ImageRenderer());
+        if (!GraphicsEnvironment.isHeadless()) {
+            renderers.add(new BufferStrategyRenderer());
+            renderers.add(new StdDrawRenderer());
+        } else {
+            System.out.println("no display: window backends skipped");
+        }
+        for (Renderer renderer : renderers) {
+            renderer.open(800, 600);
+            if (renderer instanceof Graphics2DRenderer) {
+                // stand-ins for the sprite files, so the benchmark does not depend on the art
+                BufferedImage sprite = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+                for (String name : new String[]{"misc/Spikes.png", "misc/ElephantRight.png", "misc/ElephantLeft.png"}) {
+                    ((Graphics2DRenderer) renderer).putPicture(name, sprite);
+                }
+            }
+            double nanos = time(() -> {
+                player.setX(player.getX() + 3.65 >= level.getWidth() ? 130 : player.getX() + 3.65);
+                renderer.clear();
+                camera.follow(player, map.getWorldWidth(), map.getWorldHeight());
+                camera.apply(renderer);
+                map.draw(camera, renderer);
+                camera.reset(renderer);
+                renderer.show();
+            }, 500);
+            System.out.printf("%-24s %10.1f us/frame%n", renderer.getClass().getSimpleName(), nanos / 1e3);
+        }
+    }
+
+    /**
+     * Steps batches of learning environments with random actions for every stage and prints
+     * environment steps per second and the bytes allocated per step by the stepping thread.
+     * @param stages The stages to train on.
+     */
+    private static void benchmarkEnv(ArrayList<Stage> stages) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("== env (256 environments, " + threads + " threads) ==");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[][] actions = new int[64][256];
+        for (int[] row : actions) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = random.nextInt(VecEnv.ACTION_COUNT);
+            }
+        }
+        for (Stage stage : stages) {
+            VecEnv env = new VecEnv(stage, 0, 256, 1000, threads);
+            env.reset(SEED);
+            int[] step = new int[1];
+            double nanos = time(() -> env.step(actions[step[0]++ & 63]), 2000);
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 2000; i++) {
+                env.step(actions[i & 63]);
+            }
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+            env.close();
+            System.out.printf("stage %d: %8.2f M env-steps/s  %6.2f bytes/step%n",
+                    stage.getStageNumber() + 1, 256 / nanos * 1e3, allocated / 2000.0 / 256);
+        }
+    }
+
+    /**
+     * Measures publishing on the event bus while a consumer thread reads it every 10 ms,
+     * and how many events a consumer that slow loses at that rate.
+     */
+    private static void benchmarkEvents() {
+        System.out.println("== events ==");
+        EventBus bus = new EventBus(1024);
+        EventBus.Subscription subscription = bus.subscribe();
+        long[] handled = new long[1];
+        Thread consumer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                handled[0] += subscription.poll((type, stage, time, value) -> { });
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        consumer.start();
+        long[] time = new long[1];
+        double nanos = time(() -> bus.publish(EventType.DEATH, 0, time[0]++, (int) time[0]), 10_000_000);
+        consumer.interrupt();
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.printf("publish %.1f ns/event, %d published, %d read, %d lost by the slow consumer%n",
+                nanos, bus.getPublished(), handled[0], subscription.getDropped());
+    }
+
+    /**
+     * Measures creating a Map, which happens on every stage change and reset of every session,
+     * and the bytes it allocates, on generated levels with and without a collision bitmap.
+     * @param stages Stages the levels are generated for.
+     */
+    private static void benchmarkMaps(ArrayList<Stage> stages) {
+        System.out.println("== maps ==");
+        System.out.println("screens  bitmap   us/map   bytes/map");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int screens : new int[]{1, 100}) {
+            for (int cellSize : new int[]{0, 4}) {
+                Level level = new LevelGenerator(SEED, stages).generate(screens).withBitmapCellSize(cellSize);
+                Game game = new Game(stages, level);
+                Player[] players = {new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1])};
+                Map[] last = new Map[1];
+                double nanos = time(() -> last[0] = new Map(stages.get(0), players, 1, game, level), 200);
+                long before = threadBean.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < 200; i++) {
+                    last[0] = new Map(stages.get(0), players, 1, game, level);
+                }
+                long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+                System.out.printf("%7d %7d %8.1f %11.0f%n", screens, cellSize, nanos / 1e3, allocated / 200.0);
+            }
+        }
+    }
+
+    /**
+     * Measures a collision tick split into more and more physics steps, on the bouncing stage where
+     * players fall fastest, and the largest vertical move of one step, which is how deep a player can
+     * sink into an obstacle before it is pushed out.
+     * @param stages Stages of the game.
+     */
+    private static void benchmarkSubsteps(ArrayList<Stage> stages) {
+        System.out.println("== substeps (stage 3) ==");
+        System.out.println("steps     Hz    ns/tick    ns/step   px/step");
+        Level level = Level.DEFAULT;
+        for (int substeps : new int[]{1, 2, 4, 5, 8}) {
+            Player player = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
+            Map map = new Map(stages.get(2), player, new Game(stages, level), level);
+            map.setSubsteps(substeps);
+            double[] fastest = new double[1];
+            double nanos = time(() -> {
+                map.movePlayer(0, 'R');
+                map.handleCollisions();
+                fastest[0] = Math.max(fastest[0], Math.abs(player.getVelocityY()));
+            }, 200_000);
+            System.out.printf("%5d %6d %10.1f %10.1f %9.2f%n",
+                    substeps, 50 * substeps, nanos, nanos / substeps, fastest[0] / substeps);
+        }
+    }
+
+    /**
+     * Compares drawing the bottom panel with text calls every frame against the cached layer,
+     * on frames where only the timer changes (a running game) and where nothing changes.
+     * @param stages Stages of the game, for the clues.
+     */
+    private static void benchmarkHud(ArrayList<Stage> stages) {
+        System.out.println("== hud (image renderer) ==");
+        ImageRenderer renderer = new ImageRenderer();
+        renderer.open(800, 600);
+        renderer.setScale(0, 800, 0, 600);
+        Hud hud = new Hud(new int[]{0, 0, 800, 120});
+        GameClock clock = new GameClock(stages.size());
+        Stage stage = stages.get(0);
+        double text = time(() -> {
+            clock.advance(20_000_000L);
+            hud.drawText(renderer, 3, 1, clock.getText(), stage, false);
+        }, 2_000);
+        double ticking = time(() -> {
+            clock.advance(20_000_000L);
+            hud.draw(renderer, 3, 1, clock.getText(), stage, false);
+        }, 2_000);
+        int renders = hud.getFieldRenders();
+        double still = time(() -> hud.draw(renderer, 3, 1, clock.getText(), stage, false), 2_000);
+        renderer.show();
+        System.out.printf("text calls         %8.1f us/frame%n", text / 1e3);
+        System.out.printf("layer, timer runs  %8.1f us/frame  %d field renders in %d frames%n", ticking / 1e3, renders, 5 * 2_000);
+        System.out.printf("layer, still       %8.1f us/frame  %d field renders%n", still / 1e3, hud.getFieldRenders() - renders);
+    }
+
+    /**
+     * @param stages Stages of the game.
+     * @param level The level to play.
+     * @param cellSize Collision bitmap cell size, 0 for the rectangle lists.
+     * @return Nanoseconds of one move and collision tick of a player walking right.
+     */
+    private static double collisionTick(ArrayList<Stage> stages, Level level, int cellSize) {
+        Level variant = level.withBitmapCellSize(cellSize);
+        Player player = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
+        Map map = new Map(stages.get(0), player, new Game(stages, variant), variant);
+        double nanos = time(() -> {
+            map.movePlayer(0, 'R');
+            map.handleCollisions();
+        }, 200_000);
+        return nanos;
+    }
+
+    /**
+     * Runs a task repeatedly after a warm up and returns the best average of a few rounds.
+     *
+     * @param task The task to measure.
+     * @param iterations Number of runs in one round.
+     * @return Average nanoseconds per run of the fastest round.
+     */
+    public static double time(Runnable task, int iterations) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                task.run();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) { // the first round is the warm up
+                best = Math.min(best, (double) elapsed / iterations);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param args Requested section names.
+     * @param section Name of a section.
+     * @return true if the section was requested or no section was named.
+     */
+    private static boolean shouldRun(String[] args, String section) {
+        if (args.length == 0) {
+            return true;
+        }
+        for (String arg : args) {
+            if (arg.equals(section)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,75 @@
+import java.util.SplittableRandom;
+
+/**
+ * A simple computer controlled player for local multiplayer.
+ * It walks towards the button until the door is open and then towards the exit pipe,
+ * jumping over walls and gaps it sees right in front of it.
+ * Its decisions only depend on its seed and the map, so bot runs are repeatable.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Bot {
+
+    // DATA FIELDS of the class
+    private SplittableRandom random;
+    private int wanderTicks = 0; // ticks left walking in a random direction after getting stuck
+    private char wanderDirection = 'R';
+    private double lastX = Double.NaN;
+    private int stuckTicks = 0;
+
+
+    /**
+     * Constructs a bot with its own random sequence.
+     *
+     * @param seed Seed of the bot's random decisions.
+     */
+    public Bot(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Decides the moves of the bot for one tick and applies them to the map.
+     *
+     * @param map The map the bot plays on.
+     * @param index Index of the bot's player in the map.
+     * @param player The bot's player.
+     */
+    public void control(Map map, int index, Player player) {
+        // Head for the button first, the exit once the door is open
+        int[] target = map.getIsDoorOpen() ? map.getExitPipe()[0] : map.getButton();
+        double targetX = (target[0] + target[2]) / 2.0;
+
+        // Wander for a while when no progress was made for a second
+        stuckTicks = Math.abs(player.getX() - lastX) < 0.5 ? stuckTicks + 1 : 0;
+        lastX = player.getX();
+        if (stuckTicks > 50 && wanderTicks == 0) {
+            wanderTicks = 25 + random.nextInt(50);
+            wanderDirection = random.nextBoolean() ? 'R' : 'L';
+            stuckTicks = 0;
+        }
+
+        char direction;
+        if (wanderTicks > 0) {
+            wanderTicks--;
+            direction = wanderDirection;
+        } else if (Math.abs(targetX - player.getX()) > 2) {
+            direction = targetX > player.getX() ? 'R' : 'L';
+        } else {
+            return;
+        }
+        map.movePlayer(index, direction);
+
+        // Jump when a wall is ahead, the ground ends ahead or just at random
+        double ahead = player.getX() + (direction == 'R' ? 1 : -1) * (player.getWidth() / 2 + 6);
+        double feet = player.getY() - player.getHeight() / 2;
+        boolean wallAhead = map.isSolid(ahead, feet + 2);
+        boolean gapAhead = player.getIsOnGround() && !map.isSolid(ahead, feet - 2);
+        if (wallAhead || gapAhead || random.nextInt(100) == 0) {
+            map.movePlayer(index, 'U');
+        }
+    }
+
+}
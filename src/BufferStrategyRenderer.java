@@ -0,0 +1,186 @@
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import javax.swing.JFrame;
+
+/**
+ * A Java2D backend that draws straight into the back buffer of its own window
+ * and shows it by page flipping, without StdDraw's extra offscreen copy.
+ * The buffers are accelerated VolatileImage surfaces where the graphics system offers them,
+ * and pictures are converted to compatible images so they can be cached on the graphics card.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class BufferStrategyRenderer extends Graphics2DRenderer implements InputSource {
+
+    // DATA FIELDS of the class
+    private Canvas canvas;
+    private BufferStrategy strategy;
+    private BitSet keys = new BitSet(); // guarded by itself, written by the event thread
+    private volatile boolean isMousePressed = false;
+    private volatile int mousePixelX = 0;
+    private volatile int mousePixelY = 0;
+
+
+    // GETTER METHODS
+    /**
+     * @return true if the back buffer is an accelerated surface.
+     */
+    public boolean getIsAccelerated(){return strategy.getCapabilities().getBackBufferCapabilities().isAccelerated();}
+    /**
+     * @return true if show() flips pages instead of copying the back buffer.
+     */
+    public boolean getIsPageFlipping(){return strategy.getCapabilities().isPageFlipping();}
+
+
+    // OTHER METHODS
+
+    /**
+     * Opens the window and creates its buffer strategy.
+     *
+     * @param width  Width in pixels.
+     * @param height Height in pixels.
+     */
+    public void open(int width, int height) {
+        super.open(width, height);
+        canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(width, height));
+        canvas.setIgnoreRepaint(true); // everything is drawn by the game loop
+        canvas.setFocusable(true);
+        canvas.addKeyListener(new KeyAdapter() {
+            public void keyPressed(KeyEvent e) {
+                synchronized (keys) {
+                    keys.set(e.getKeyCode());
+                }
+            }
+            public void keyReleased(KeyEvent e) {
+                synchronized (keys) {
+                    keys.clear(e.getKeyCode());
+                }
+            }
+        });
+        MouseAdapter mouse = new MouseAdapter() {
+            public void mousePressed(MouseEvent e) {
+                mousePixelX = e.getX();
+                mousePixelY = e.getY();
+                isMousePressed = true;
+            }
+            public void mouseReleased(MouseEvent e){isMousePressed = false;}
+            public void mouseDragged(MouseEvent e) {
+                mousePixelX = e.getX();
+                mousePixelY = e.getY();
+            }
+            public void mouseMoved(MouseEvent e) {
+                mousePixelX = e.getX();
+                mousePixelY = e.getY();
+            }
+        };
+        canvas.addMouseListener(mouse);
+        canvas.addMouseMotionListener(mouse);
+
+        JFrame frame = new JFrame();
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(false);
+        frame.setIgnoreRepaint(true);
+        frame.add(canvas);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        canvas.requestFocus();
+
+        // Ask for accelerated page flipping, fall back to whatever the system gives.
+        // The back buffer holds nothing usable after a flip, so every frame must be drawn whole.
+        try {
+            canvas.createBufferStrategy(2, new BufferCapabilities(new ImageCapabilities(true),
+                    new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            canvas.createBufferStrategy(2);
+        }
+        strategy = canvas.getBufferStrategy();
+    }
+
+    /**
+     * @return Graphics of the back buffer.
+     */
+    protected Graphics2D beginFrame() {
+        return (Graphics2D) strategy.getDrawGraphics();
+    }
+
+    /**
+     * Flips the back buffer to the screen. A frame whose surface was lost is
+     * simply replaced by the next one, since every frame is drawn from scratch.
+     */
+    protected void present() {
+        if (!strategy.contentsLost()) {
+            strategy.show();
+        }
+        Toolkit.getDefaultToolkit().sync(); // flush the window system's queue (needed on Linux)
+    }
+
+    /**
+     * Copies a picture to an image compatible with the screen, which Java2D keeps accelerated.
+     * Pictures set before the window is opened are drawn as they are.
+     *
+     * @param image The loaded picture.
+     * @return The compatible picture.
+     */
+    protected Image prepare(BufferedImage image) {
+        if (canvas == null) { // not opened yet
+            return image;
+        }
+        GraphicsConfiguration config = canvas.getGraphicsConfiguration();
+        BufferedImage compatible = config.createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * @return The keyboard and mouse of the window.
+     */
+    public InputSource getInput(){return this;}
+
+    /**
+     * @param keyCode A KeyEvent key code.
+     * @return true if the key is held down.
+     */
+    public boolean isKeyPressed(int keyCode) {
+        if (keyCode < 0) {
+            return false;
+        }
+        synchronized (keys) {
+            return keys.get(keyCode);
+        }
+    }
+
+    /**
+     * @return true if a mouse button is held down.
+     */
+    public boolean isMousePressed(){return isMousePressed;}
+
+    /**
+     * @return x coordinate of the mouse in the current user scale.
+     */
+    public double mouseX(){return userX(mousePixelX);}
+
+    /**
+     * @return y coordinate of the mouse in the current user scale.
+     */
+    public double mouseY(){return userY(mousePixelY);}
+
+}
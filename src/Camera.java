@@ -0,0 +1,115 @@
+/**
+ * A world-space camera that follows the player.
+ * It maps a window of the level onto the fixed 800x600 canvas and
+ * tells the map which part of the level is visible for culling.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Camera {
+
+    // DATA FIELDS of the class
+    private double x = 0; // left edge of the view in world coordinates
+    private double y = 0; // bottom edge of the view in world coordinates
+    private double viewWidth;
+    private double viewHeight;
+    private double hudHeight; // bottom part of the canvas covered by the timer area
+
+
+    /**
+     * Constructs a camera with the given view size.
+     *
+     * @param viewWidth  Width of the canvas in world units.
+     * @param viewHeight Height of the canvas in world units.
+     * @param hudHeight  Height of the canvas area hidden behind the HUD.
+     */
+    public Camera(double viewWidth, double viewHeight, double hudHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.hudHeight = hudHeight;
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Left edge of the visible window.
+     */
+    public double getLeft(){return x;}
+    /**
+     * @return Right edge of the visible window.
+     */
+    public double getRight(){return x + viewWidth;}
+    /**
+     * @return Bottom edge of the visible window (the part above the HUD).
+     */
+    public double getBottom(){return y + hudHeight;}
+    /**
+     * @return Top edge of the visible window.
+     */
+    public double getTop(){return y + viewHeight;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Centers the view on the player without leaving the level bounds.
+     *
+     * @param player      The player to follow.
+     * @param worldWidth  Width of the level.
+     * @param worldHeight Height of the level.
+     */
+    public void follow(Player player, double worldWidth, double worldHeight) {
+        follow(player, 1, worldWidth, worldHeight);
+    }
+
+    /**
+     * Centers the view on where the player is drawn between two steps, without leaving the level bounds.
+     *
+     * @param player      The player to follow.
+     * @param alpha       Fraction of a step passed since the last step, 1 for the current position.
+     * @param worldWidth  Width of the level.
+     * @param worldHeight Height of the level.
+     */
+    public void follow(Player player, double alpha, double worldWidth, double worldHeight) {
+        x = clamp(player.getDrawX(alpha) - viewWidth / 2, worldWidth - viewWidth);
+        // Center on the area above the HUD
+        y = clamp(player.getDrawY(alpha) - hudHeight - (viewHeight - hudHeight) / 2, worldHeight - viewHeight);
+    }
+
+    /**
+     * Switches the canvas to world coordinates of the visible window.
+     *
+     * @param renderer The renderer to set the scale of.
+     */
+    public void apply(Renderer renderer) {
+        renderer.setScale(x, x + viewWidth, y, y + viewHeight);
+    }
+
+    /**
+     * Switches the canvas back to screen coordinates for the HUD.
+     *
+     * @param renderer The renderer to set the scale of.
+     */
+    public void reset(Renderer renderer) {
+        renderer.setScale(0, viewWidth, 0, viewHeight);
+    }
+
+    /**
+     * Checks whether a rectangle intersects the visible window.
+     *
+     * @param rect Rectangle as {xLeftDown, yLeftDown, xRightUp, yRightUp}.
+     * @return true if any part of it can be seen.
+     */
+    public boolean isVisible(int[] rect) {
+        return rect[2] > getLeft() && rect[0] < getRight() && rect[3] > getBottom() && rect[1] < getTop();
+    }
+
+    /**
+     * @param value Desired view position.
+     * @param max   Largest position that keeps the view inside the level.
+     * @return value limited to [0, max], or 0 when the level is smaller than the view.
+     */
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(Math.max(0, max), value));
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * The level rasterized into two packed bitsets, one for solid cells and one for spike cells.
+ * "Is this box touching a spike" and "is there ground under the player" become a few
+ * word level bit operations per row instead of a loop over every rectangle.
+ * A cell is set when any part of a rectangle overlaps it, so with a cell size of 1 the
+ * answers are exact for the integer level coordinates and bigger cells make them conservative.
+ * The door and button move, so they are not part of the bitmap.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class CollisionBitmap {
+
+    // DATA FIELDS of the class
+    private int cellSize;
+    private int cols;
+    private int rows;
+    private int wordsPerRow;
+    private long[] solid;
+    private long[] hazard;
+
+
+    /**
+     * Rasterizes the obstacles and spikes of a level.
+     *
+     * @param level    The level to rasterize.
+     * @param cellSize Side length of one cell in pixels.
+     */
+    public CollisionBitmap(Level level, int cellSize) {
+        if (cellSize < 1) {
+            throw new IllegalArgumentException("cell size must be at least 1");
+        }
+        this.cellSize = cellSize;
+        this.cols = (level.getWidth() + cellSize - 1) / cellSize;
+        this.rows = (level.getHeight() + cellSize - 1) / cellSize;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.solid = new long[wordsPerRow * rows];
+        this.hazard = new long[wordsPerRow * rows];
+
+        for (int[] obstacle : level.getObstacles()) {
+            fill(solid, obstacle);
+        }
+        for (int[] spike : level.getSpikes()) {
+            fill(hazard, spike);
+        }
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Side length of one cell in pixels.
+     */
+    public int getCellSize(){return cellSize;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Checks whether a box touches a solid cell.
+     * Edges are exclusive like Map.checkCollision(), so a box resting on a surface does not touch it.
+     *
+     * @param left   Left edge of the box.
+     * @param bottom Bottom edge of the box.
+     * @param right  Right edge of the box.
+     * @param top    Top edge of the box.
+     * @return true if any solid cell overlaps the box.
+     */
+    public boolean touchesSolid(double left, double bottom, double right, double top) {
+        return any(solid, left, bottom, right, top);
+    }
+
+    /**
+     * Checks whether a box touches a spike cell.
+     *
+     * @param left   Left edge of the box.
+     * @param bottom Bottom edge of the box.
+     * @param right  Right edge of the box.
+     * @param top    Top edge of the box.
+     * @return true if any spike cell overlaps the box.
+     */
+    public boolean touchesHazard(double left, double bottom, double right, double top) {
+        return any(hazard, left, bottom, right, top);
+    }
+
+    /**
+     * Checks whether there is solid ground right under a box.
+     *
+     * @param left   Left edge of the box.
+     * @param bottom Bottom edge of the box (the feet).
+     * @param right  Right edge of the box.
+     * @return true if the one pixel strip below the box touches a solid cell.
+     */
+    public boolean isGroundBelow(double left, double bottom, double right) {
+        return any(solid, left, bottom - 1, right, bottom);
+    }
+
+    /**
+     * Sets every cell overlapped by a rectangle.
+     *
+     * @param bits Bitset to fill.
+     * @param rect Rectangle as {xLeftDown, yLeftDown, xRightUp, yRightUp}.
+     */
+    private void fill(long[] bits, int[] rect) {
+        int firstCol = Math.max(0, rect[0] / cellSize);
+        int lastCol = Math.min(cols - 1, (rect[2] + cellSize - 1) / cellSize - 1);
+        int firstRow = Math.max(0, rect[1] / cellSize);
+        int lastRow = Math.min(rows - 1, (rect[3] + cellSize - 1) / cellSize - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                bits[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+
+    /**
+     * Checks whether any cell overlapped by a box is set, one masked word at a time.
+     *
+     * @param bits   Bitset to check.
+     * @param left   Left edge of the box.
+     * @param bottom Bottom edge of the box.
+     * @param right  Right edge of the box.
+     * @param top    Top edge of the box.
+     * @return true if a set cell overlaps the box.
+     */
+    private boolean any(long[] bits, double left, double bottom, double right, double top) {
+        // cells overlapped by the open box (left, right) x (bottom, top)
+        int firstCol = Math.max(0, (int) Math.floor(left / cellSize));
+        int lastCol = Math.min(cols - 1, (int) Math.ceil(right / cellSize) - 1);
+        int firstRow = Math.max(0, (int) Math.floor(bottom / cellSize));
+        int lastRow = Math.min(rows - 1, (int) Math.ceil(top / cellSize) - 1);
+        if (firstCol > lastCol || firstRow > lastRow) {
+            return false;
+        }
+
+        int firstWord = firstCol >>> 6;
+        int lastWord = lastCol >>> 6;
+        long firstMask = -1L << firstCol;           // shifts only use the low 6 bits
+        long lastMask = -1L >>> (63 - (lastCol & 63));
+        for (int row = firstRow; row <= lastRow; row++) {
+            int base = row * wordsPerRow;
+            if (firstWord == lastWord) {
+                if ((bits[base + firstWord] & firstMask & lastMask) != 0) {
+                    return true;
+                }
+                continue;
+            }
+            if ((bits[base + firstWord] & firstMask) != 0 || (bits[base + lastWord] & lastMask) != 0) {
+                return true;
+            }
+            for (int word = firstWord + 1; word < lastWord; word++) {
+                if (bits[base + word] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,149 @@
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stream of gameplay events from the game thread to any number of consumer threads.
+ * Events are written into a ring buffer of primitive arrays allocated once, and publishing
+ * only stores a few values and moves a cursor, so it never blocks or allocates.
+ * Each consumer reads with its own Subscription at its own pace. A consumer that falls more
+ * than a buffer behind loses the oldest events and can see how many it lost; the game never waits.
+ * Only one thread may publish.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class EventBus {
+
+    // DATA FIELDS of the class
+    private static final EventType[] TYPES = EventType.values();
+    private int mask;
+    private int[] types;
+    private int[] stages;
+    private int[] values;
+    private long[] times;
+    private AtomicLong cursor = new AtomicLong(-1);  // sequence of the last published event
+    private AtomicLong claimed = new AtomicLong(-1); // sequence of the event being written
+
+
+    /**
+     * Handles events read from a Subscription.
+     */
+    public interface Handler {
+        /**
+         * @param type  Kind of the event.
+         * @param stage Index of the stage it happened in.
+         * @param time  Game clock time of the event in nanoseconds.
+         * @param value Value of the event, see EventType.
+         */
+        void onEvent(EventType type, int stage, long time, int value);
+    }
+
+
+    /**
+     * Reading position of one consumer.
+     */
+    public class Subscription {
+
+        // DATA FIELDS of the class
+        private long next; // sequence of the next event to read
+        private long dropped = 0;
+
+        /**
+         * Starts reading at the next event published.
+         */
+        private Subscription() {
+            this.next = cursor.get() + 1;
+        }
+
+        /**
+         * @return Number of events that were overwritten before this consumer read them.
+         */
+        public long getDropped(){return dropped;}
+
+        /**
+         * Hands every event published since the last poll to a handler.
+         *
+         * @param handler The handler.
+         * @return Number of events handled.
+         */
+        public int poll(Handler handler) {
+            int handled = 0;
+            long last = cursor.get();
+            while (next <= last) {
+                if (last - next >= types.length) { // already overwritten
+                    dropped += last - types.length + 1 - next;
+                    next = last - types.length + 1;
+                }
+                int index = (int) next & mask;
+                EventType type = TYPES[types[index]];
+                int stage = stages[index];
+                long time = times[index];
+                int value = values[index];
+                VarHandle.acquireFence(); // read the event before checking it is still valid
+                if (claimed.get() - next >= types.length) { // overwritten while it was read
+                    dropped++;
+                } else {
+                    handler.onEvent(type, stage, time, value);
+                    handled++;
+                }
+                next++;
+            }
+            return handled;
+        }
+
+    }
+
+
+    /**
+     * Constructs a bus with room for the given number of unread events.
+     *
+     * @param capacity Size of the ring buffer, a power of two.
+     */
+    public EventBus(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.types = new int[capacity];
+        this.stages = new int[capacity];
+        this.values = new int[capacity];
+        this.times = new long[capacity];
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Number of events published so far.
+     */
+    public long getPublished(){return cursor.get() + 1;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Publishes an event. Must always be called from the same thread.
+     *
+     * @param type  Kind of the event.
+     * @param stage Index of the stage it happened in.
+     * @param time  Game clock time in nanoseconds.
+     * @param value Value of the event, see EventType.
+     */
+    public void publish(EventType type, int stage, long time, int value) {
+        long sequence = cursor.get() + 1;
+        int index = (int) sequence & mask;
+        claimed.lazySet(sequence);
+        VarHandle.storeStoreFence(); // readers see the claim before the slot changes
+        types[index] = type.ordinal();
+        stages[index] = stage;
+        times[index] = time;
+        values[index] = value;
+        cursor.lazySet(sequence); // makes the event visible after its fields
+    }
+
+    /**
+     * @return A new consumer position starting at the next published event.
+     */
+    public Subscription subscribe() {
+        return new Subscription();
+    }
+
+}
@@ -0,0 +1,21 @@
+/**
+ * Kinds of gameplay events published on the EventBus, with the meaning of their value.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public enum EventType {
+
+    /** A death of a human player or a restart of the stage; value is the death count of the run. */
+    DEATH,
+    /** The button was pressed; value is the number of presses in this try of the stage. */
+    BUTTON_PRESS,
+    /** The door started opening; value is 0. */
+    DOOR_OPEN,
+    /** A stage was finished; value is its split in milliseconds. */
+    STAGE_CLEAR,
+    /** The last stage was finished; value is the total time in milliseconds. */
+    GAME_FINISH,
+    /** The game was reset to the first stage; value is 0. */
+    GAME_RESET
+
+}
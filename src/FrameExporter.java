@@ -0,0 +1,174 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Renders a recorded run to numbered PNG files without a window, as fast as possible.
+ * The game draws each frame into one of a few pooled pictures and a fixed pool of workers
+ * encodes them. When every picture is waiting to be encoded the game waits for a free one,
+ * so memory stays bounded however long the run is.
+ * Usage: java FrameExporter run.replay frames [-threads N] [-compression Q]
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class FrameExporter {
+
+    // DATA FIELDS of the class
+    private String directory;
+    private float compression; // 0 (smallest files) to 1 (fastest encoding)
+    private ExecutorService encoders;
+    private ArrayBlockingQueue<BufferedImage> freeImages;
+    private AtomicReference<IOException> error = new AtomicReference<IOException>();
+
+
+    /**
+     * Constructs an exporter writing into a directory.
+     *
+     * @param directory   Directory of the PNG files, created if needed.
+     * @param threads     Number of encoding workers.
+     * @param compression PNG compression quality, 0 for the smallest files and 1 for the fastest encoding.
+     */
+    public FrameExporter(String directory, int threads, float compression) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("at least one encoding thread is needed");
+        }
+        this.directory = directory;
+        this.compression = compression;
+        this.encoders = Executors.newFixedThreadPool(threads);
+        // two pictures per worker: one being encoded, one waiting
+        this.freeImages = new ArrayBlockingQueue<BufferedImage>(2 * threads + 1);
+        for (int i = 0; i < 2 * threads + 1; i++) {
+            freeImages.add(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB));
+        }
+    }
+
+    /**
+     * Exports the replay given on the command line.
+     * @param args The replay file, the output directory and optionally "-threads N" and "-compression Q".
+     * @throws IOException if the replay cannot be read or a frame cannot be written.
+     * @throws InterruptedException if the export is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("usage: java FrameExporter <run.replay> <directory> [-threads N] [-compression Q]");
+            return;
+        }
+        int threads = Integer.parseInt(Main.option(args, "-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        float compression = Float.parseFloat(Main.option(args, "-compression", "0.75"));
+
+        long start = System.nanoTime();
+        ArrayList<Stage> stages = Main.createStages();
+        Replay replay = Replay.open(args[0]);
+        Game game = Main.createGame(replay.getOptions().split(" "), stages);
+        int frames = new FrameExporter(args[1], threads, compression).export(game, replay);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Exported %d frames (%d recorded) in %.1f s, %.0f frames/s%n",
+                frames, replay.getFrameCount(), seconds, frames / seconds);
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Plays a replay in the game and writes every drawn frame.
+     *
+     * @param game   A new game built from the replay's options.
+     * @param replay The replay to play back.
+     * @return Number of frames written.
+     * @throws IOException if a frame cannot be written.
+     * @throws InterruptedException if the export is interrupted.
+     */
+    public int export(Game game, Replay replay) throws IOException, InterruptedException {
+        new File(directory).mkdirs();
+        ImageRenderer renderer = new ImageRenderer();
+        game.setRenderer(renderer);
+        game.setReplay(replay);
+        game.start();
+
+        int frame = 0;
+        BufferedImage last = null;
+        try {
+            while (!game.getIsFinished() && error.get() == null) {
+                long deltaTime = replay.nextTick(0);
+                if (replay.getIsExhausted()) {
+                    break;
+                }
+                BufferedImage image = freeImages.take(); // waits while every picture is being encoded
+                if (last != null) {
+                    // frames like the reset banner draw over the previous frame
+                    copy(last, image);
+                }
+                renderer.setImage(image);
+                if (!game.tick(deltaTime)) {
+                    freeImages.put(image);
+                    continue;
+                }
+                renderer.show();
+                last = image;
+                int number = frame++;
+                encoders.execute(() -> encode(image, number));
+            }
+        } finally {
+            encoders.shutdown();
+            encoders.awaitTermination(1, TimeUnit.DAYS);
+            replay.close();
+        }
+        if (error.get() != null) {
+            throw error.get();
+        }
+        return frame;
+    }
+
+    /**
+     * Writes one frame as a PNG file and gives its picture back to the pool.
+     *
+     * @param image  The drawn frame.
+     * @param number Number of the frame.
+     */
+    private void encode(BufferedImage image, int number) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        File file = new File(directory, String.format("frame%06d.png", number));
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(compression);
+            }
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            error.compareAndSet(null, e);
+        } finally {
+            writer.dispose();
+            freeImages.add(image);
+        }
+    }
+
+    /**
+     * Copies the pixels of one frame into another.
+     *
+     * @param from The frame to copy.
+     * @param to   The picture to copy into.
+     */
+    private static void copy(BufferedImage from, BufferedImage to) {
+        int[] source = ((DataBufferInt) from.getRaster().getDataBuffer()).getData();
+        int[] target = ((DataBufferInt) to.getRaster().getDataBuffer()).getData();
+        if (source != target) {
+            System.arraycopy(source, 0, target, 0, source.length);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Keeps the game loop at a fixed frame rate.
+ * Instead of sleeping a fixed time after every frame, it sleeps only for what is left
+ * of the frame period after the work was done, and spins for the last moment because
+ * Thread.sleep() wakes up too late on most systems. Frames whose work took longer than
+ * the period are counted as missed deadlines.
+ * Only frames that were shown are counted, so waits in which nothing reached the screen do not
+ * make the frame rate look higher or dilute the missed deadlines.
+ * It only paces the drawing: the game itself is stepped every 20 ms whatever the frame rate.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class FramePacer {
+
+    // DATA FIELDS of the class
+    private static final long SPIN_NANOS = 2_000_000; // the last 2 ms are spun instead of slept
+    private int targetHz;
+    private long periodNanos;      // 0 when uncapped
+    private long deadline;         // end of the current frame
+    private long frameStart;
+    private long lastWorkNanos = 0;
+    private long frameCount = 0;
+    private long missedFrames = 0;
+    private boolean isShown = false; // a frame was shown in the current period
+
+
+    /**
+     * Constructs a pacer for the given frame rate.
+     *
+     * @param targetHz Frames per second, 0 for uncapped.
+     */
+    public FramePacer(int targetHz) {
+        if (targetHz < 0) {
+            throw new IllegalArgumentException("frame rate must not be negative: " + targetHz);
+        }
+        this.targetHz = targetHz;
+        this.periodNanos = targetHz == 0 ? 0 : 1_000_000_000L / targetHz;
+        this.frameStart = System.nanoTime();
+        this.deadline = frameStart + periodNanos;
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Target frames per second, 0 when uncapped.
+     */
+    public int getTargetHz(){return targetHz;}
+    /**
+     * @return Nanoseconds the last frame worked before waiting.
+     */
+    public long getLastWorkNanos(){return lastWorkNanos;}
+    /**
+     * @return Number of frames shown so far.
+     */
+    public long getFrameCount(){return frameCount;}
+    /**
+     * @return Number of shown frames that were not finished before their deadline.
+     */
+    public long getMissedFrames(){return missedFrames;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Counts a frame that was put on the screen in the current period.
+     */
+    public void frameShown() {
+        frameCount++;
+        isShown = true;
+    }
+
+    /**
+     * Waits until the end of the current frame period and starts the next one.
+     * Call it once per loop, after the frame was shown.
+     */
+    public void sync() {
+        long now = System.nanoTime();
+        lastWorkNanos = now - frameStart;
+        boolean wasShown = isShown;
+        isShown = false;
+
+        if (periodNanos == 0) { // uncapped
+            frameStart = now;
+            return;
+        }
+
+        if (now > deadline) {
+            // Missed: start the next frame from now instead of rushing to catch up
+            if (wasShown) {
+                missedFrames++;
+            }
+            deadline = now + periodNanos;
+            frameStart = now;
+            return;
+        }
+
+        long remaining = deadline - now;
+        if (remaining > SPIN_NANOS) {
+            try {
+                Thread.sleep((remaining - SPIN_NANOS) / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        frameStart = deadline;
+        deadline += periodNanos;
+    }
+
+    /**
+     * Starts the next frame period from now after the loop waited on its own, e.g. for input,
+     * so the wait is not a missed deadline.
+     */
+    public void restart() {
+        long now = System.nanoTime();
+        lastWorkNanos = 0;
+        isShown = false;
+        frameStart = now;
+        deadline = now + periodNanos;
+    }
+
+    /**
+     * @return A one line summary of the shown frames and missed deadlines.
+     */
+    public String report() {
+        return String.format("%s: %d frames, %d missed deadlines (%.1f%%)",
+                targetHz == 0 ? "uncapped" : targetHz + " Hz", frameCount, missedFrames,
+                frameCount == 0 ? 0.0 : 100.0 * missedFrames / frameCount);
+    }
+
+}
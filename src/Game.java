@@ -15,25 +15,77 @@ public class Game {
     private int stageIndex = 0;
     private ArrayList<Stage> stages;
     private int deathNumber = 0;
-    private double gameTime = 0;
-    private Player player;
+    private Player[] players; // human players first, then bots
+    private Bot[] bots;
+    private int humanCount = 1;
     private Map map;
+    private Level level;
+    private Camera camera = new Camera(800, 600, 120);
+    private Hud hud; // the panel at the bottom, created with the first map
+    private static final long STEP_NANOS = 20_000_000L; // the physics was tuned for 50 steps per second
+    private static final long MAX_BACKLOG_NANOS = 5 * STEP_NANOS; // most steps caught up in one frame
+    private static final long BACKGROUND_NANOS = 100_000_000L; // frame period while the window is unfocused
+    private FramePacer pacer = new FramePacer(50); // how often frames are drawn
+    private int substeps = 1; // gravity and collision steps per frame
+    private long startTime = System.nanoTime(); // for the time to the first frame
+    private Renderer renderer = new StdDrawRenderer();
+    private InputSource input = renderer.getInput();
     private boolean isFinished = false;
-    private int minutes = 0;
-    private int seconds = 0;
-    private int miliseconds = 0;
     private boolean helpPressed = false;
     private boolean isResetting = false;
-    private double resetMessageTime = 0;
+    private GameClock clock;
+    private EventBus events = new EventBus(1024);
+    private long resetMessageTime = 0; // nanoseconds
+    private long passedStageTime = 0;  // nanoseconds
+    private boolean stagePassed = false;
+    private boolean isEnded = false; // showing the end game screen
+    private boolean wasStillScreen = false; // the last frame was the end screen or the reset banner
+    private boolean isStill = false; // the last frame drawn is the same as the one before
+    private Replay replay; // records or plays back the input, null when not used
 
 
     /**
-     * Constructs a new Game instance with a list of stages.
+     * Constructs a new Game instance with a list of stages on the default level.
      *
      * @param stages A list of predefined Stage objects.
      */
     public Game(ArrayList<Stage> stages) {
+        this(stages, Level.DEFAULT);
+    }
+
+    /**
+     * Constructs a new Game instance with a list of stages on the given level.
+     *
+     * @param stages A list of predefined Stage objects.
+     * @param level The level every stage is played on.
+     */
+    public Game(ArrayList<Stage> stages, Level level) {
+        this(stages, level, 1, 0);
+    }
+
+    /**
+     * Constructs a new Game instance with several local players on the given level.
+     *
+     * @param stages A list of predefined Stage objects.
+     * @param level The level every stage is played on.
+     * @param humanCount Number of players using the keyboard, each with its own key set of the stage.
+     * @param botCount Number of computer controlled players.
+     */
+    public Game(ArrayList<Stage> stages, Level level, int humanCount, int botCount) {
         this.stages = stages;
+        this.level = level;
+        this.humanCount = humanCount;
+        this.clock = new GameClock(stages.size());
+        this.bots = new Bot[botCount];
+        for (int i = 0; i < botCount; i++) {
+            bots[i] = new Bot(i);
+        }
+        for (Stage stage : stages) {
+            if (stage.getPlayerCount() < humanCount) {
+                throw new IllegalArgumentException("stage " + (stage.getStageNumber() + 1) + " has key sets for "
+                        + stage.getPlayerCount() + " players only");
+            }
+        }
     }
 
 
@@ -42,6 +94,74 @@ public class Game {
      * @return the active Stage object based on the stage index.
      */
     public Stage getCurrentStage(){return stages.get(stageIndex);}
+    /**
+     * @return Index of the stage being played.
+     */
+    public int getStageIndex(){return stageIndex;}
+    /**
+     * @return The players, humans first and then bots.
+     */
+    public Player[] getPlayers(){return players;}
+    /**
+     * @return Number of deaths in this run.
+     */
+    public int getDeathNumber(){return deathNumber;}
+    /**
+     * @return true once the player quit from the end game screen.
+     */
+    public boolean getIsFinished(){return isFinished;}
+    /**
+     * @return The speedrun timer.
+     */
+    public GameClock getClock(){return clock;}
+    /**
+     * @return The stream of gameplay events of this game.
+     */
+    public EventBus getEvents(){return events;}
+    /**
+     * @return The pacer of the main loop.
+     */
+    public FramePacer getFramePacer(){return pacer;}
+
+
+    // SETTER METHODS
+    /**
+     * Sets how often the main loop draws a frame. The game is stepped 50 times per second
+     * at any frame rate, and frames between two steps show the players on their way between them.
+     * @param frameRate Frames per second, 0 for uncapped.
+     */
+    public void setFrameRate(int frameRate){this.pacer = new FramePacer(frameRate);}
+    /**
+     * Splits the gravity and collision pass of every frame into smaller steps, from the next map on.
+     * @param substeps Steps per frame, at least 1.
+     */
+    public void setSubsteps(int substeps) {
+        if (substeps < 1) {
+            throw new IllegalArgumentException("a frame needs at least one physics step: " + substeps);
+        }
+        this.substeps = substeps;
+    }
+    /**
+     * @param startTime System.nanoTime() when the program started, to report the time to the first frame.
+     */
+    public void setStartTime(long startTime){this.startTime = startTime;}
+    /**
+     * Selects the drawing backend; the game reads its input from the backend's window.
+     * @param renderer The renderer to draw with.
+     */
+    public void setRenderer(Renderer renderer) {
+        this.renderer = renderer;
+        this.input = replay != null ? replay : renderer.getInput();
+    }
+    /**
+     * Records the input of the game or plays a recorded input back instead of the keyboard and mouse.
+     * @param replay The replay, recording from the renderer's input if it was created for recording.
+     */
+    public void setReplay(Replay replay) {
+        this.replay = replay;
+        replay.setSource(renderer.getInput());
+        this.input = replay;
+    }
 
 
     // OTHER METHODS
@@ -49,166 +169,335 @@ public class Game {
     /**
      * Main game loop that controls gameplay, UI rendering,
      * stage transition, and input handling.
+     * The game is stepped every 20 ms of real time, as the physics was tuned for, whatever the frame rate:
+     * the time since the last frame is added to a backlog that is worked off in whole steps,
+     * and the pacer only decides how often a frame is drawn. A frame places the players and the camera
+     * between their positions before and after the last step by the part of a step left in the backlog,
+     * so frame rates above 50 Hz show smoother motion instead of repeating frames. The drawn positions
+     * lag the game by less than one step. A frame that would look like the last one is not drawn, and
+     * an uncapped loop sleeps until the next step instead of spinning.
+     * While the window is in the background the game runs on at 10 frames per second.
      */
     public void play() {
-        // canvas size
-        StdDraw.setCanvasSize(800, 600);
-        StdDraw.setXscale(0, 800);
-        StdDraw.setYscale(0, 600);
+        start();
+        run();
+        System.exit(0); // Close the tab
+    }
 
-        // Create some objects by OOP
-        Stage currentStage = getCurrentStage();
-        player = new Player(130, 465);
-        map = new Map(currentStage, player, this);
+    /**
+     * Runs the main game loop described at play() on the opened game until it is finished,
+     * without closing the program, so tools can measure the loop the player gets.
+     */
+    public void run() {
+        // A played back run reads its input from the file, so it never waits for the keyboard
+        IdleMonitor idle = replay == null ? new IdleMonitor() : null;
 
-        double lastTime = System.currentTimeMillis() / 1000.0;
-        double passedStageTime = 0;
-        boolean stagePassed = false;
+        long lastTime = System.nanoTime();
+        long backlog = STEP_NANOS; // game time not stepped yet; the first frame steps once
+        boolean isBackground = false; // the loop waited a background frame period
 
         // main game loop
-        StdDraw.enableDoubleBuffering();
-        while (true) {
+        while (!isFinished) {
 
             // Arrange time
-            double currentTime = System.currentTimeMillis() / 1000.0;
-            double deltaTime = currentTime - lastTime;
+            long currentTime = System.nanoTime();
+            backlog += currentTime - lastTime;
             lastTime = currentTime;
+            if (!isResetting) { // after a stall the game slows down instead of jumping ahead
+                backlog = Math.min(backlog, isBackground ? BACKGROUND_NANOS + MAX_BACKLOG_NANOS : MAX_BACKLOG_NANOS);
+            }
 
-            // Reset display
-            if (isResetting) {
-                resetMessageTime += deltaTime;
-
-                // Draw reset message
-                StdDraw.setPenColor(StdDraw.GREEN);
-                StdDraw.filledRectangle(400, 275, 400, 75);
-                StdDraw.setPenColor(StdDraw.WHITE);
-
-                Font resetFont = new Font("Arial", Font.BOLD, 45);
-                StdDraw.setFont(resetFont);
-                StdDraw.text(400, 275, "RESETTING THE GAME...");
-
-                if (resetMessageTime >= 2.0) { // Wait to seconds
-                    isResetting = false;
-                    resetMessageTime = 0;
-                    resetGame();
-                    resetHelp();
-                    player = new Player(130, 465);
-                    stageIndex = 0;
-                    map = new Map(getCurrentStage(), player, this);
+            // Step the game in fixed steps
+            boolean isStepped = false;
+            while (backlog >= STEP_NANOS && !isFinished) {
+                backlog -= STEP_NANOS;
+                long stepTime = STEP_NANOS;
+                if (replay != null) {
+                    stepTime = replay.nextTick(STEP_NANOS);
+                    if (replay.getIsExhausted()) {
+                        isFinished = true; // the played back run is over
+                        break;
+                    }
                 }
+                boolean wasResetting = isResetting;
+                update(stepTime);
+                isStepped = true;
+                if (wasResetting && !isResetting) {
+                    backlog = 0; // the banner's leftover time is not played
+                }
+            }
+            if (isFinished) {
+                break;
+            }
+
+            // Draw the frame between the last two steps; between steps it only changes while a player moves
+            boolean isDrawn = isStepped || isMoving();
+            if (isDrawn) {
+                draw(Math.min(1, (double) backlog / STEP_NANOS));
+                if (!isStill) { // the window already shows a still frame
+                    renderer.show();
+                    if (pacer.getFrameCount() == 0) {
+                        System.out.printf("First frame after %.1f ms%n", (System.nanoTime() - startTime) / 1e6);
+                    }
+                    pacer.frameShown();
+                }
+            }
 
-                StdDraw.show();
-                StdDraw.pause(20);
-                continue;  // just show reset message
+            // Sleep through screens that wait for input or time instead of redrawing them
+            long idleTime = getIdleNanos();
+            isBackground = idle != null && humanCount > 0 && !idle.getIsFocused();
+            if (idle != null && idleTime > 0 && idle.awaitInput(idleTime)) {
+                if (isEnded) {
+                    lastTime = System.nanoTime(); // no game time passes on the end screen
+                }
+                pacer.restart();
+            } else if (isBackground) {
+                // Nobody watches a window in the background closely, so it gets few frames until it is focused again
+                idle.awaitFocus(BACKGROUND_NANOS);
+                pacer.restart();
+            } else if (!isDrawn && pacer.getTargetHz() == 0) {
+                sleepNanos(STEP_NANOS - backlog); // uncapped, but nothing new to draw before the next step
+                pacer.restart();
+            } else {
+                pacer.sync();
             }
+        }
 
+        if (idle != null) {
+            idle.close();
+        }
+        System.out.println("Frame pacing " + pacer.report());
+        if (replay != null) {
+            replay.close();
+        }
+    }
 
-            if (!stagePassed) {
-                updateGameTime(deltaTime);
+    /**
+     * Ends the loop of run() after the current frame. Call it on the thread running the loop.
+     */
+    public void finish() {
+        isFinished = true;
+    }
+
+    /**
+     * Opens the canvas and creates the players and the map of the first stage.
+     */
+    public void start() {
+        // canvas size
+        renderer.open(800, 600);
+        renderer.setScale(0, 800, 0, 600);
+
+        // Create some objects by OOP
+        createPlayers();
+        map = createMap(getCurrentStage());
+        hud = new Hud(map.getTimerArea(), renderer.getImageScale());
+    }
+
+    /**
+     * Advances the game by one step and draws the frame.
+     * The frame is not shown, so the caller decides where it goes.
+     *
+     * @param deltaTime Nanoseconds of game time of the step, 20 ms when the game runs as tuned.
+     * @return true if a frame was drawn, false if the frame was skipped for a stage change.
+     */
+    public boolean tick(long deltaTime) {
+        if (!update(deltaTime)) {
+            return false;
+        }
+        draw();
+        return true;
+    }
+
+    /**
+     * Advances the game by one step: reads the input, moves the players and runs the timers of the banners.
+     *
+     * @param deltaTime Nanoseconds of game time of the step.
+     * @return false if the step finished a stage, whose frame the original loop did not draw.
+     */
+    public boolean update(long deltaTime) {
+        if (isEnded) {
+            checkEndGameKeys();
+            return true;
+        }
+
+        // Reset display
+        if (isResetting) {
+            resetMessageTime += deltaTime;
+            if (resetMessageTime >= 2_000_000_000L) { // Wait to seconds
+                isResetting = false;
+                resetMessageTime = 0;
+                resetGame();
+                resetHelp();
+                createPlayers();
+                stageIndex = 0;
+                map = createMap(getCurrentStage());
+                publish(EventType.GAME_RESET, 0);
             }
 
-            StdDraw.clear();
+            return true;  // just show reset message
+        }
 
-            // Check for Mouse presses (Help, Restart, Reset Game)
-            checkMouseButtonClicks();
 
-            handleInput();
-            map.handleCollisions();
+        if (!stagePassed) { // the clock stands still during the banners
+            clock.advance(deltaTime);
+        }
 
-            // Check if stage is completed
-            if (map.changeStage()) {
-                // Check if this is the last stage
+        // Check for Mouse presses (Help, Restart, Reset Game)
+        checkMouseButtonClicks();
+
+        for (Player player : players) {
+            player.savePosition(); // frames until the next step are drawn from here to the new position
+        }
+        handleInput();
+        map.handleCollisions();
+
+        // Check if stage is completed
+        if (map.changeStage()) {
+            if (!stagePassed) {
+                publish(EventType.STAGE_CLEAR, (int) (clock.split() / 1_000_000));
                 if (stageIndex >= stages.size() - 1) {
-                    // Go directly to end game
-                    endGame();
-                    if (isFinished) {
-                        break;
-                    }
-                } else {
-                    // Show passing stage banner
-                    stagePassed = true;
+                    publish(EventType.GAME_FINISH, (int) (clock.getElapsedNanos() / 1_000_000));
                 }
-                continue;
             }
-
-            // Update door and draw map
-            map.updateDoor();
-            map.draw();
-
-            // bottom side of the game display
-            StdDraw.setPenColor(new Color(56, 93, 172)); // Color of the area
-            StdDraw.filledRectangle((map.getTimerArea()[2]-map.getTimerArea()[0]) / 2.0, (map.getTimerArea()[3]-map.getTimerArea()[1]) / 2.0,
-                    (map.getTimerArea()[2]-map.getTimerArea()[0]) / 2.0, (map.getTimerArea()[3]-map.getTimerArea()[1]) / 2.0); // Drawing bottom part
-            StdDraw.setPenColor(StdDraw.WHITE);
-
-            Font defaultFont = new Font("SansSerif", Font.PLAIN, 16);
-            StdDraw.setFont(defaultFont);
-
-            StdDraw.text(250, 85, "Help");
-            StdDraw.rectangle(250, 85, 40, 15); // Help button
-            StdDraw.text(550, 85, "Restart");
-            StdDraw.rectangle(550, 85, 40, 15); // Restart button
-            StdDraw.text(400, 20, "RESET THE GAME");
-            StdDraw.rectangle(400, 20, 80, 15); // Reset button
-            StdDraw.text(700, 75, "Deaths: " + deathNumber);
-            StdDraw.text(700, 50, "Stage: " + (stageIndex + 1));
-            StdDraw.text(100, 50, String.format("%02d:%02d:%02d", minutes, seconds, miliseconds));
-            StdDraw.text(100, 75, "Level: 1");
-
-            // Display clue or help
-            if (helpPressed) {
-                StdDraw.text(400, 85, "Help:");
-                StdDraw.text(400, 55, currentStage.getHelp());
+            // Check if this is the last stage
+            if (stageIndex >= stages.size() - 1) {
+                // Go directly to end game
+                isEnded = true;
             } else {
-                StdDraw.text(400, 85, "Clue:");
-                StdDraw.text(400, 55, currentStage.getClue());
+                // Show passing stage banner
+                stagePassed = true;
             }
+            return false;
+        }
+
+        // Animate the door and button
+        map.updateAnimations(deltaTime);
 
-            // Passing stage banner
-            if (stagePassed) {
-                passedStageTime += deltaTime;
-
-                // Draw passing stage banner
-                StdDraw.setPenColor(StdDraw.GREEN);
-                StdDraw.filledRectangle(400, 275, 400, 75);
-                StdDraw.setPenColor(StdDraw.WHITE);
-
-                Font passFont = new Font("Arial", Font.PLAIN, 24);
-                StdDraw.setFont(passFont);
-                StdDraw.text(400, 290, "You passed the stage");
-                StdDraw.text(400, 260, "But is the level over?!");
-
-                if (passedStageTime >= 2.0) { // Wait 2 seconds
-                    stagePassed = false;
-                    passedStageTime = 0;
-                    stageIndex++;
-                    resetHelp();
-
-                    if (stageIndex >= stages.size()) {
-                        endGame();
-                        if (isFinished) {
-                            break;
-                        }
-                    } else {
-                        currentStage = getCurrentStage();
-                        player.respawn(new double[]{130, 465});
-                        map = new Map(currentStage, player, this);
+        // Passing stage banner
+        if (stagePassed) {
+            passedStageTime += deltaTime;
+            if (passedStageTime >= 2_000_000_000L) { // Wait 2 seconds
+                stagePassed = false;
+                passedStageTime = 0;
+                stageIndex++;
+                resetHelp();
+
+                if (stageIndex >= stages.size()) {
+                    isEnded = true;
+                } else {
+                    for (Player player : players) {
+                        player.respawn(level.getSpawnPoint());
                     }
+                    map = createMap(getCurrentStage());
                 }
             }
+        }
+
+        return true;
+    }
+
+    /**
+     * Draws the current state of the game. The frame is not shown, so the caller decides where it goes.
+     */
+    public void draw() {
+        draw(1);
+    }
+
+    /**
+     * Draws the game with the players and the camera placed between their positions before and after
+     * the last step. The frame is not shown, so the caller decides where it goes.
+     *
+     * @param alpha Fraction of a step passed since the last step, in [0, 1]; 1 draws the current state.
+     */
+    public void draw(double alpha) {
+        boolean isStillScreen = isEnded || isResetting;
+        isStill = isStillScreen && wasStillScreen;
+        wasStillScreen = isStillScreen;
+
+        if (isEnded) {
+            drawEndGame();
+            return;
+        }
+
+        renderer.clear();
+
+        // Draw the visible part of the map
+        camera.follow(players[0], alpha, map.getWorldWidth(), map.getWorldHeight());
+        camera.apply(renderer);
+        map.draw(camera, renderer, alpha);
+        camera.reset(renderer);
+
+        // bottom side of the game display
+        hud.draw(renderer, deathNumber, stageIndex + 1, clock.getText(), getCurrentStage(), helpPressed);
+
+        // Passing stage banner
+        if (stagePassed) {
+            renderer.setPenColor(Color.GREEN);
+            renderer.filledRectangle(400, 275, 400, 75);
+            renderer.setPenColor(Color.WHITE);
+
+            Font passFont = new Font("Arial", Font.PLAIN, 24);
+            renderer.setFont(passFont);
+            renderer.text(400, 290, "You passed the stage");
+            renderer.text(400, 260, "But is the level over?!");
+        }
+
+        // Reset display, over the game that stands still while it shows; a flipped
+        // back buffer holds no usable frame, so the game under it is drawn again
+        if (isResetting) {
+            renderer.setPenColor(Color.GREEN);
+            renderer.filledRectangle(400, 275, 400, 75);
+            renderer.setPenColor(Color.WHITE);
+
+            Font resetFont = new Font("Arial", Font.BOLD, 45);
+            renderer.setFont(resetFont);
+            renderer.text(400, 275, "RESETTING THE GAME...");
+        }
+    }
+
+    /**
+     * @return true if a player moved in the last step, so a frame between steps differs from the last one.
+     */
+    private boolean isMoving() {
+        for (Player player : players) {
+            if (player.getIsMoving()) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            StdDraw.show();
-            StdDraw.pause(20);
+    /**
+     * @param nanos Nanoseconds to sleep.
+     */
+    private static void sleepNanos(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Nanoseconds the loop may sleep without missing a change of the screen, 0 to keep the frame rate.
+     */
+    private long getIdleNanos() {
+        if (isEnded) {
+            return Long.MAX_VALUE; // only a key changes the end screen
+        }
+        if (isResetting) {
+            return 2_000_000_000L - resetMessageTime;
         }
+        return 0;
     }
 
     /**
      * Checks for mouse clicks and triggers actions based on UI buttons.
      */
     private void checkMouseButtonClicks() {
-        if (StdDraw.isMousePressed()) {
-            double mouseX = StdDraw.mouseX();
-            double mouseY = StdDraw.mouseY();
+        if (input.isMousePressed()) {
+            double mouseX = input.mouseX();
+            double mouseY = input.mouseY();
 
             // Help button click
             if (mouseX >= 210 && mouseX <= 290 && mouseY >= 70 && mouseY <= 100) {
@@ -229,44 +518,39 @@ public class Game {
     }
 
     /**
-     * Displays the final end game screen with stats and
-     * provides exit/replay options.
+     * Displays the final end game screen with stats and the exit and replay keys.
      */
-    private void endGame() {
-        StdDraw.clear();
+    private void drawEndGame() {
+        renderer.clear();
 
-        StdDraw.setPenColor(StdDraw.GREEN);
-        StdDraw.filledRectangle(400, 275, 400, 75);
-        StdDraw.setPenColor(StdDraw.WHITE);
+        renderer.setPenColor(Color.GREEN);
+        renderer.filledRectangle(400, 275, 400, 75);
+        renderer.setPenColor(Color.WHITE);
 
         Font endFont1 = new Font("Arial", Font.PLAIN, 24);
-        StdDraw.setFont(endFont1);
-        StdDraw.text(400, 295, "CONGRATULATIONS YOU FINISHED THE LEVEL");
-        StdDraw.text(400, 266, "PRESS 'A' TO PLAY AGAIN!");
+        renderer.setFont(endFont1);
+        renderer.text(400, 295, "CONGRATULATIONS YOU FINISHED THE LEVEL");
+        renderer.text(400, 266, "PRESS 'A' TO PLAY AGAIN!");
 
         Font endFont2 = new Font("Arial", Font.PLAIN, 20);
-        StdDraw.setFont(endFont2);
-        String timeStr = String.format("%02d : %02d : %02d", minutes, seconds, miliseconds);
-        StdDraw.text(400, 240, "You finished with " + deathNumber + " deaths in " + timeStr);
-
-        StdDraw.show();
-
-        // keyboard inputs at the end game banner
-        while (true) {
-            if (StdDraw.isKeyPressed(KeyEvent.VK_Q)) { // Q for quitting
-                isFinished = true;
-                System.exit(0); // Close the tab
-                break;
-
-            } else if (StdDraw.isKeyPressed(KeyEvent.VK_A)) { // A for restarting
-                resetHelp();
-                resetGame();
-                player = new Player(130, 465);
-                map = new Map(getCurrentStage(), player, this);
-                break;
-            }
+        renderer.setFont(endFont2);
+        renderer.text(400, 240, "You finished with " + deathNumber + " deaths in " + clock.getSpacedText());
+    }
 
-            StdDraw.pause(20);
+    /**
+     * Reads the keys of the end game screen: Q quits, A plays again.
+     */
+    private void checkEndGameKeys() {
+        if (input.isKeyPressed(KeyEvent.VK_Q)) { // Q for quitting
+            isFinished = true;
+
+        } else if (input.isKeyPressed(KeyEvent.VK_A)) { // A for restarting
+            isEnded = false;
+            resetHelp();
+            resetGame();
+            createPlayers();
+            map = createMap(getCurrentStage());
+            publish(EventType.GAME_RESET, 0);
         }
     }
 
@@ -277,53 +561,61 @@ public class Game {
     private void resetGame() {
         stageIndex = 0;
         deathNumber = 0;
-        gameTime = 0;
-        minutes = 0;
-        seconds = 0;
-        miliseconds = 0;
+        clock.reset();
     }
 
     /**
      * Handles user keyboard input for player movement.
+     * Every human player reads its own key set of the stage, bots decide on their own.
      */
     private void handleInput() {
-        if (StdDraw.isKeyPressed(getCurrentStage().getKeyCodes()[0])) {
-            if (getCurrentStage().getStageNumber() == 1) {
-                map.movePlayer('R', -1); // -1 for reversed key stage
-            } else {
-                map.movePlayer('R');
-            }
+        for (int i = 0; i < humanCount; i++) {
+            int[] keyCodes = getCurrentStage().getKeyCodes(i);
+            map.applyInput(i, input.isKeyPressed(keyCodes[0]),
+                              input.isKeyPressed(keyCodes[1]),
+                              input.isKeyPressed(keyCodes[2]));
         }
-        if (StdDraw.isKeyPressed(getCurrentStage().getKeyCodes()[1])) {
-            if (getCurrentStage().getStageNumber() == 1) {
-                map.movePlayer('L', -1); // -1 for reversed key stage
-            } else {
-                map.movePlayer('L');
-            }
+        for (int i = 0; i < bots.length; i++) {
+            bots[i].control(map, humanCount + i, players[humanCount + i]);
         }
-        if (StdDraw.isKeyPressed(getCurrentStage().getKeyCodes()[2])) {
-            map.movePlayer('U');
+    }
+
+    /**
+     * Creates all players at the spawn point of the level.
+     */
+    private void createPlayers() {
+        players = new Player[humanCount + bots.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player(level.getSpawnPoint()[0], level.getSpawnPoint()[1]);
         }
     }
 
+    /**
+     * @param stage The stage to play.
+     * @return A new map of the level for all players.
+     */
+    private Map createMap(Stage stage) {
+        Map map = new Map(stage, players, humanCount, this, level);
+        map.setSubsteps(substeps);
+        return map;
+    }
+
     /**
      * Increments the death counter by one.
      */
     public void incrementDeath() {
         deathNumber++;
+        publish(EventType.DEATH, deathNumber);
     }
 
     /**
-     * Updates the internal game timer.
+     * Publishes a gameplay event of the current stage at the current game time.
      *
-     * @param delta Time passed since last update.
+     * @param type Kind of the event.
+     * @param value Value of the event, see EventType.
      */
-    public void updateGameTime(double delta) {
-        gameTime += delta;
-
-        miliseconds = (int) (gameTime * 1000) % 100;
-        seconds = (int) gameTime % 60;
-        minutes = ((int) gameTime / 60) % 60;
+    public void publish(EventType type, int value) {
+        events.publish(type, stageIndex, clock.getElapsedNanos(), value);
     }
 
     /**
@@ -0,0 +1,142 @@
+/**
+ * The speedrun timer of the game, counted in integer nanoseconds.
+ * It only runs while a stage is being played, keeps the time of every finished stage
+ * (the splits) and rebuilds its text only when the shown centiseconds change.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class GameClock {
+
+    // DATA FIELDS of the class
+    private static final long NANOS_PER_CENTISECOND = 10_000_000L;
+    private long elapsedNanos = 0;
+    private long stageStartNanos = 0; // elapsed time when the current stage started
+    private long[] splits;
+    private int splitCount = 0;
+    private long textCentiseconds = -1; // centiseconds the cached texts show
+    private String text;
+    private String spacedText;
+    private char[] digits = new char[8]; // mm:ss:cc
+
+
+    /**
+     * Constructs a stopped clock at zero.
+     *
+     * @param stageCount Number of stages, the most splits a run can have.
+     */
+    public GameClock(int stageCount) {
+        this.splits = new long[stageCount];
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Nanoseconds counted since the run started.
+     */
+    public long getElapsedNanos(){return elapsedNanos;}
+    /**
+     * @return Number of finished stages.
+     */
+    public int getSplitCount(){return splitCount;}
+    /**
+     * @param stage Index of a finished stage.
+     * @return Nanoseconds the stage took.
+     */
+    public long getSplit(int stage){return splits[stage];}
+
+
+    // OTHER METHODS
+
+    /**
+     * Counts the time of one frame of play.
+     *
+     * @param deltaNanos Nanoseconds since the previous frame.
+     */
+    public void advance(long deltaNanos) {
+        elapsedNanos += deltaNanos;
+    }
+
+    /**
+     * Ends the split of the current stage; the next stage starts from now.
+     *
+     * @return Nanoseconds the finished stage took.
+     */
+    public long split() {
+        long split = elapsedNanos - stageStartNanos;
+        if (splitCount < splits.length) {
+            splits[splitCount++] = split;
+        }
+        stageStartNanos = elapsedNanos;
+        return split;
+    }
+
+    /**
+     * Sets the clock back to zero and forgets the splits.
+     */
+    public void reset() {
+        elapsedNanos = 0;
+        stageStartNanos = 0;
+        splitCount = 0;
+    }
+
+    /**
+     * @return The time as "mm:ss:cc" (minutes, seconds and centiseconds).
+     */
+    public String getText() {
+        updateText();
+        return text;
+    }
+
+    /**
+     * @return The time as "mm : ss : cc" for the end screen.
+     */
+    public String getSpacedText() {
+        updateText();
+        return spacedText;
+    }
+
+    /**
+     * @param nanos A duration.
+     * @return The duration as "mm:ss:cc".
+     */
+    public static String format(long nanos) {
+        char[] chars = new char[8];
+        fill(chars, nanos / NANOS_PER_CENTISECOND);
+        return new String(chars);
+    }
+
+    /**
+     * Rebuilds the texts if the shown centiseconds changed.
+     */
+    private void updateText() {
+        long centiseconds = elapsedNanos / NANOS_PER_CENTISECOND;
+        if (centiseconds == textCentiseconds) {
+            return;
+        }
+        textCentiseconds = centiseconds;
+        fill(digits, centiseconds);
+        text = new String(digits);
+        spacedText = new String(digits, 0, 2) + " : " + new String(digits, 3, 2) + " : " + new String(digits, 6, 2);
+    }
+
+    /**
+     * Writes "mm:ss:cc" into a char array. Minutes wrap at 60 like the original timer.
+     *
+     * @param chars        Array of length 8.
+     * @param centiseconds Time to write.
+     */
+    private static void fill(char[] chars, long centiseconds) {
+        int minutes = (int) (centiseconds / 6000 % 60);
+        int seconds = (int) (centiseconds / 100 % 60);
+        int hundredths = (int) (centiseconds % 100);
+        chars[0] = (char) ('0' + minutes / 10);
+        chars[1] = (char) ('0' + minutes % 10);
+        chars[2] = ':';
+        chars[3] = (char) ('0' + seconds / 10);
+        chars[4] = (char) ('0' + seconds % 10);
+        chars[5] = ':';
+        chars[6] = (char) ('0' + hundredths / 10);
+        chars[7] = (char) ('0' + hundredths % 10);
+    }
+
+}
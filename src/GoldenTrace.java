@@ -0,0 +1,440 @@
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Regression check for the physics: plays a corpus of recorded runs without a window and
+ * compares the state of every player after every tick with a stored golden trace.
+ * A change that keeps the golden traces is a pure optimization; one that breaks them
+ * is reported at the first tick that differs, with every field that differs there.
+ * The corpus is a directory of replay files (NAME.replay), each with its trace next to it (NAME.golden).
+ * Generated runs start on different stages ("-first K" in their options), since scripted input rarely
+ * clears a stage, so they are meant for this checker rather than for watching.
+ * The corpus in traces/ was recorded with "-generate 8 -frames 500"; check it with no options after changing the physics.
+ * Usage: java GoldenTrace [-dir D] [-generate N [-frames F]] [-rebaseline] [-abs E | -ulps U] [-threads T] [NAME...]
+ * "-generate N" records N scripted runs over a mix of levels, collision backends, players and bots,
+ * "-frames F" makes them F frames long instead of 3000,
+ * "-rebaseline" overwrites the traces with the current behaviour instead of checking it,
+ * "-abs E" and "-ulps U" accept differences up to E, or up to U units in the last place, instead of exact equality.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class GoldenTrace {
+
+    /**
+     * How two values of a trace are compared.
+     */
+    public enum Tolerance {
+        EXACT,    // same bits
+        ABSOLUTE, // difference at most the tolerance
+        ULPS      // at most the tolerance units in the last place apart
+    }
+
+    // DATA FIELDS of the class
+    private static final int MAGIC = 0x474c4431; // "GLD1"
+    public static final String DEFAULT_DIRECTORY = "traces";
+    private static final int GENERATED_FRAMES = 3000; // one minute at 50 frames per second
+    private static final String[] PLAYER_FIELDS = {"x", "y", "velocityX", "velocityY", "onGround", "jumping", "facingRight"};
+    private Tolerance mode;
+    private double tolerance;
+
+
+    /**
+     * Constructs a checker.
+     *
+     * @param mode      How values are compared.
+     * @param tolerance Largest accepted difference, in units of the mode (ignored for EXACT).
+     */
+    public GoldenTrace(Tolerance mode, double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance cannot be negative");
+        }
+        this.mode = mode;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Checks, re-baselines or generates the corpus given on the command line.
+     * @param args Options as described in the class comment, then the names of the runs to use (all by default).
+     * @throws IOException if the corpus cannot be read or written.
+     * @throws InterruptedException if the runs are interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String directory = Main.option(args, "-dir", DEFAULT_DIRECTORY);
+        int threads = Integer.parseInt(Main.option(args, "-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        boolean rebaseline = Arrays.asList(args).contains("-rebaseline");
+        GoldenTrace checker = new GoldenTrace(Tolerance.EXACT, 0);
+        if (Main.option(args, "-abs", null) != null) {
+            checker = new GoldenTrace(Tolerance.ABSOLUTE, Double.parseDouble(Main.option(args, "-abs", null)));
+        } else if (Main.option(args, "-ulps", null) != null) {
+            checker = new GoldenTrace(Tolerance.ULPS, Double.parseDouble(Main.option(args, "-ulps", null)));
+        }
+
+        long start = System.nanoTime();
+        if (Main.option(args, "-generate", null) != null) {
+            generate(directory, Integer.parseInt(Main.option(args, "-generate", null)),
+                    Integer.parseInt(Main.option(args, "-frames", String.valueOf(GENERATED_FRAMES))));
+            rebaseline = true; // new runs have no traces yet
+        }
+
+        ArrayList<String> names = runNames(directory, args);
+        if (names.isEmpty()) {
+            System.out.println("No runs in " + directory + ", record some with -generate N");
+            return;
+        }
+
+        // Every run is independent, so they are played in parallel
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<String>> results = new ArrayList<Future<String>>();
+        for (String name : names) {
+            String base = directory + File.separator + name;
+            boolean write = rebaseline;
+            GoldenTrace runChecker = checker;
+            results.add(pool.submit((Callable<String>) () -> runChecker.run(base, write)));
+        }
+        pool.shutdown();
+
+        int failures = 0;
+        for (int i = 0; i < names.size(); i++) {
+            String result;
+            try {
+                result = results.get(i).get();
+            } catch (ExecutionException e) {
+                result = "FAIL " + e.getCause();
+            }
+            if (result.startsWith("FAIL")) {
+                failures++;
+            }
+            System.out.println(names.get(i) + ": " + result);
+        }
+        System.out.printf("%d runs %s in %.1f s, %d failed%n", names.size(),
+                rebaseline ? "re-baselined" : "checked", (System.nanoTime() - start) / 1e9, failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays one run of the corpus and writes or checks its trace.
+     *
+     * @param base  Path of the run without the extension.
+     * @param write true to overwrite the golden trace, false to compare with it.
+     * @return "ok ..." or "FAIL ..." with the first difference.
+     * @throws IOException if the files cannot be read or written.
+     */
+    public String run(String base, boolean write) throws IOException {
+        Replay replay = Replay.open(base + ".replay");
+        Game game = createGame(replay.getOptions());
+        game.setRenderer(new NullRenderer());
+        game.setReplay(replay);
+        game.start();
+
+        int playerCount = Integer.parseInt(Main.option(replay.getOptions().split(" "), "-players", "1"))
+                + Integer.parseInt(Main.option(replay.getOptions().split(" "), "-bots", "0"));
+        double[] row = new double[2 + PLAYER_FIELDS.length * playerCount];
+        double[] expected = new double[row.length];
+        DataOutputStream out = null;
+        DataInputStream in = null;
+        if (write) {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(base + ".golden")));
+            out.writeInt(MAGIC);
+            out.writeInt(row.length);
+        } else {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(base + ".golden")));
+            if (in.readInt() != MAGIC || in.readInt() != row.length) {
+                in.close();
+                replay.close();
+                return "FAIL " + base + ".golden is not a trace of this run";
+            }
+        }
+
+        int tick = 0;
+        String failure = null;
+        try {
+            while (!game.getIsFinished()) {
+                long deltaTime = replay.nextTick(0);
+                if (replay.getIsExhausted()) {
+                    break;
+                }
+                game.tick(deltaTime);
+                sample(game, row);
+                if (write) {
+                    for (double value : row) {
+                        out.writeDouble(value);
+                    }
+                } else {
+                    try {
+                        for (int i = 0; i < expected.length; i++) {
+                            expected[i] = in.readDouble();
+                        }
+                    } catch (EOFException e) {
+                        failure = "FAIL the run is longer than its trace of " + tick + " ticks";
+                        break;
+                    }
+                    failure = diff(tick, expected, row);
+                    if (failure != null) {
+                        break;
+                    }
+                }
+                tick++;
+            }
+            if (!write && failure == null && in.available() > 0) {
+                failure = "FAIL the run ended after " + tick + " ticks, before its trace";
+            }
+        } finally {
+            replay.close();
+            if (out != null) {
+                out.close();
+            } else {
+                in.close();
+            }
+        }
+        return failure != null ? failure : (write ? "wrote " : "ok ") + tick + " ticks";
+    }
+
+    /**
+     * Records scripted runs into a corpus directory, spread over the original and generated levels,
+     * every collision backend and different numbers of players and bots.
+     *
+     * @param directory Directory of the corpus, created if needed.
+     * @param count     Number of runs, named run00, run01 and so on.
+     * @param frames    Frames of every run.
+     * @throws IOException if a replay cannot be written.
+     */
+    public static void generate(String directory, int count, int frames) throws IOException {
+        new File(directory).mkdirs();
+        ArrayList<Stage> stages = Main.createStages();
+        int[] keyCodes = Replay.watchedKeys(stages);
+        for (int i = 0; i < count; i++) {
+            String[] args = {"-screens", String.valueOf(new int[]{0, 0, 2, 4}[i % 4]),
+                             "-seed", String.valueOf(i),
+                             "-bitmap", String.valueOf(new int[]{0, 1, 4}[i % 3]),
+                             "-players", String.valueOf(1 + i % 2),
+                             "-bots", String.valueOf(i % 3)};
+            String options = Main.gameOptions(args) + " -first " + i % stages.size();
+            Replay replay = Replay.record(String.format("%s%srun%02d.replay", directory, File.separator, i),
+                    options, keyCodes);
+            Game game = createGame(options);
+            game.setRenderer(new NullRenderer());
+            game.setReplay(replay);
+            ScriptedInput script = new ScriptedInput(i, keyCodes);
+            replay.setSource(script);
+            game.start();
+
+            SplittableRandom jitter = new SplittableRandom(i);
+            for (int frame = 0; frame < frames && !game.getIsFinished(); frame++) {
+                script.advance();
+                // frame times around 20 ms like a real 50 Hz loop
+                game.tick(replay.nextTick(20_000_000L + jitter.nextLong(-2_000_000L, 2_000_001L)));
+            }
+            replay.close();
+        }
+    }
+
+    /**
+     * Builds the game of a run, with its stages rotated so that the one given by "-first" comes first.
+     *
+     * @param options Options of the run.
+     * @return The game, without a renderer chosen.
+     */
+    private static Game createGame(String options) {
+        ArrayList<Stage> stages = Main.createStages();
+        Collections.rotate(stages, -Integer.parseInt(Main.option(options.split(" "), "-first", "0")));
+        return Main.createGame(options.split(" "), stages);
+    }
+
+    /**
+     * Copies the state of the game after a tick into a row of the trace.
+     *
+     * @param game The game.
+     * @param row  Stage index, deaths, then the fields of PLAYER_FIELDS for every player.
+     */
+    private static void sample(Game game, double[] row) {
+        row[0] = game.getStageIndex();
+        row[1] = game.getDeathNumber();
+        Player[] players = game.getPlayers();
+        for (int i = 0; i < players.length; i++) {
+            int base = 2 + i * PLAYER_FIELDS.length;
+            row[base] = players[i].getX();
+            row[base + 1] = players[i].getY();
+            row[base + 2] = players[i].getVelocityX();
+            row[base + 3] = players[i].getVelocityY();
+            row[base + 4] = players[i].getIsOnGround() ? 1 : 0;
+            row[base + 5] = players[i].getIsJumping() ? 1 : 0;
+            row[base + 6] = players[i].getIsFacingRight() ? 1 : 0;
+        }
+    }
+
+    /**
+     * Compares a row of the run with the golden row.
+     *
+     * @param tick     Index of the tick.
+     * @param expected The golden row.
+     * @param actual   The row of the run.
+     * @return null if they match, otherwise a description of every field that differs.
+     */
+    private String diff(int tick, double[] expected, double[] actual) {
+        StringBuilder message = null;
+        for (int i = 0; i < expected.length; i++) {
+            if (matches(expected[i], actual[i])) {
+                continue;
+            }
+            if (message == null) {
+                message = new StringBuilder("FAIL first difference at tick " + tick + ":");
+            }
+            message.append("\n    ").append(fieldName(i)).append(": expected ").append(expected[i])
+                   .append(", actual ").append(actual[i])
+                   .append(" (difference ").append(actual[i] - expected[i]).append(')');
+        }
+        return message == null ? null : message.toString();
+    }
+
+    /**
+     * @param expected The golden value.
+     * @param actual   The value of the run.
+     * @return true if the values are equal within the tolerance.
+     */
+    private boolean matches(double expected, double actual) {
+        if (Double.doubleToLongBits(expected) == Double.doubleToLongBits(actual)) {
+            return true;
+        }
+        switch (mode) {
+            case ABSOLUTE:
+                return Math.abs(actual - expected) <= tolerance;
+            case ULPS:
+                return Math.abs(actual - expected) <= tolerance * Math.ulp(Math.max(Math.abs(expected), Math.abs(actual)));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param index Index of a field in a row.
+     * @return Readable name of the field, e.g. "player 1 velocityY".
+     */
+    private static String fieldName(int index) {
+        if (index == 0) {
+            return "stage";
+        }
+        if (index == 1) {
+            return "deaths";
+        }
+        return "player " + (index - 2) / PLAYER_FIELDS.length + " " + PLAYER_FIELDS[(index - 2) % PLAYER_FIELDS.length];
+    }
+
+    /**
+     * @param directory Directory of the corpus.
+     * @param args      The command-line arguments; words that are not options or their values are run names.
+     * @return The runs to use: the ones named on the command line, or every replay in the directory.
+     */
+    private static ArrayList<String> runNames(String directory, String[] args) {
+        ArrayList<String> names = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-rebaseline")) {
+                continue;
+            }
+            if (args[i].startsWith("-")) {
+                i++; // skip the value of the option
+                continue;
+            }
+            names.add(args[i]);
+        }
+        if (names.isEmpty()) {
+            File[] files = new File(directory).listFiles((dir, name) -> name.endsWith(".replay"));
+            if (files != null) {
+                for (File file : files) {
+                    names.add(file.getName().substring(0, file.getName().length() - ".replay".length()));
+                }
+            }
+            names.sort(null);
+        }
+        return names;
+    }
+
+    /**
+     * Keyboard and mouse input of a generated run: random groups of keys held for random
+     * lengths of time, and now and then a click on the Help or Restart button.
+     */
+    private static class ScriptedInput implements InputSource {
+
+        // DATA FIELDS of the class
+        private SplittableRandom random;
+        private int[] keyCodes;
+        private boolean[] held;
+        private int holdTicks = 0;
+        private boolean isMousePressed = false;
+        private double mouseX = 0;
+
+        /**
+         * @param seed     Seed of the script.
+         * @param keyCodes Keys the script may press.
+         */
+        private ScriptedInput(long seed, int[] keyCodes) {
+            this.random = new SplittableRandom(seed);
+            this.keyCodes = keyCodes;
+            this.held = new boolean[keyCodes.length];
+        }
+
+        /**
+         * Moves the script to the next frame.
+         */
+        private void advance() {
+            isMousePressed = random.nextInt(400) == 0;
+            mouseX = random.nextBoolean() ? 250 : 550; // Help or Restart
+            if (--holdTicks > 0) {
+                return;
+            }
+            holdTicks = 1 + random.nextInt(40);
+            for (int i = 0; i < keyCodes.length; i++) {
+                // Q would quit from the end screen and stop the run early
+                held[i] = keyCodes[i] != KeyEvent.VK_Q && random.nextInt(10) < 3;
+            }
+        }
+
+        /**
+         * @param keyCode A KeyEvent key code.
+         * @return true if the script holds the key in this frame.
+         */
+        public boolean isKeyPressed(int keyCode) {
+            for (int i = 0; i < keyCodes.length; i++) {
+                if (keyCodes[i] == keyCode) {
+                    return held[i];
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return true if the script clicks in this frame.
+         */
+        public boolean isMousePressed(){return isMousePressed;}
+
+        /**
+         * @return x coordinate of the click.
+         */
+        public double mouseX(){return mouseX;}
+
+        /**
+         * @return y coordinate of the click, the row of the Help and Restart buttons.
+         */
+        public double mouseY(){return 85;}
+    }
+
+}
@@ -0,0 +1,295 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Common part of the backends that draw with Java2D themselves.
+ * It converts the StdDraw style user coordinates to pixels and draws on the Graphics2D
+ * of the current frame; subclasses only decide where a frame comes from and how it is shown.
+ * Pictures are read from their files once and cached.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public abstract class Graphics2DRenderer implements Renderer {
+
+    // DATA FIELDS of the class
+    static final BasicStroke PEN = new BasicStroke(1.024f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); // StdDraw's default pen
+    private int width;
+    private int height;
+    private double xMin = 0;
+    private double xMax = 1;
+    private double yMin = 0;
+    private double yMax = 1;
+    private Color penColor = Color.BLACK;
+    private Font font = new Font("SansSerif", Font.PLAIN, 16); // StdDraw's default font
+    private Graphics2D graphics; // graphics of the frame being drawn, null between frames
+    private HashMap<String, Image> pictures = new HashMap<String, Image>();
+
+
+    // GETTER METHODS
+    /**
+     * @return Width of the surface in pixels.
+     */
+    public int getWidth(){return width;}
+    /**
+     * @return Height of the surface in pixels.
+     */
+    public int getHeight(){return height;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Sets the size of the surface; subclasses create the surface itself.
+     *
+     * @param width  Width in pixels.
+     * @param height Height in pixels.
+     */
+    public void open(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param xMin x coordinate of the left edge.
+     * @param xMax x coordinate of the right edge.
+     * @param yMin y coordinate of the bottom edge.
+     * @param yMax y coordinate of the top edge.
+     */
+    public void setScale(double xMin, double xMax, double yMin, double yMax) {
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+    }
+
+    /**
+     * Clears the frame to white.
+     */
+    public void clear() {
+        Graphics2D g = graphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(penColor);
+    }
+
+    /**
+     * @param color Color of the following shapes and text.
+     */
+    public void setPenColor(Color color) {
+        penColor = color;
+        graphics().setColor(color);
+    }
+
+    /**
+     * @param font Font of the following text.
+     */
+    public void setFont(Font font) {
+        this.font = font;
+        graphics().setFont(font);
+    }
+
+    /**
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        graphics().fill(toPixels(x, y, halfWidth, halfHeight));
+    }
+
+    /**
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    public void rectangle(double x, double y, double halfWidth, double halfHeight) {
+        graphics().draw(toPixels(x, y, halfWidth, halfHeight));
+    }
+
+    /**
+     * @param x    x of the center.
+     * @param y    y of the center.
+     * @param text The text.
+     */
+    public void text(double x, double y, String text) {
+        Graphics2D g = graphics();
+        FontMetrics metrics = g.getFontMetrics();
+        // same placement as StdDraw: centered horizontally, baseline one descent below the point
+        g.drawString(text, (float) (scaleX(x) - metrics.stringWidth(text) / 2.0), (float) (scaleY(y) + metrics.getDescent()));
+    }
+
+    /**
+     * @param x       x of the center.
+     * @param y       y of the center.
+     * @param name    File name of the picture.
+     * @param width   Width in user coordinates.
+     * @param height  Height in user coordinates.
+     * @param degrees Rotation in degrees.
+     */
+    public void picture(double x, double y, String name, double width, double height, double degrees) {
+        Image image = pictures.get(name);
+        if (image == null) {
+            image = prepare(loadPicture(name));
+            pictures.put(name, image);
+        }
+        Graphics2D g = graphics();
+        double xs = scaleX(x);
+        double ys = scaleY(y);
+        double ws = width * this.width / Math.abs(xMax - xMin);
+        double hs = height * this.height / Math.abs(yMax - yMin);
+        AffineTransform transform = g.getTransform();
+        g.rotate(Math.toRadians(-degrees), xs, ys);
+        g.drawImage(image, (int) Math.round(xs - ws / 2), (int) Math.round(ys - hs / 2),
+                (int) Math.round(ws), (int) Math.round(hs), null);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Draws an image held in memory, scaled to the given size. Unlike pictures it is neither
+     * prepared nor cached, so its owner may draw into it between frames.
+     *
+     * @param x      x of the center.
+     * @param y      y of the center.
+     * @param image  The image.
+     * @param width  Width in user coordinates.
+     * @param height Height in user coordinates.
+     */
+    public void image(double x, double y, BufferedImage image, double width, double height) {
+        Rectangle2D.Double pixels = toPixels(x, y, width / 2, height / 2);
+        graphics().drawImage(image, (int) Math.round(pixels.x), (int) Math.round(pixels.y),
+                (int) Math.round(pixels.width), (int) Math.round(pixels.height), null);
+    }
+
+    /**
+     * @return true, Java2D draws images from memory.
+     */
+    public boolean getCanDrawImages(){return true;}
+
+    /**
+     * @return 1, a frame has one pixel per screen unit.
+     */
+    public int getImageScale(){return 1;}
+
+    /**
+     * Sets the picture drawn for a name instead of loading it.
+     *
+     * @param name  File name the picture is drawn with.
+     * @param image The picture.
+     */
+    public void putPicture(String name, BufferedImage image) {
+        pictures.put(name, prepare(image));
+    }
+
+    /**
+     * Finishes the frame and shows it.
+     */
+    public void show() {
+        Graphics2D g = graphics();
+        graphics = null;
+        g.dispose();
+        present();
+    }
+
+    /**
+     * @return Graphics of a new frame; it is disposed by show().
+     */
+    protected abstract Graphics2D beginFrame();
+
+    /**
+     * Shows the finished frame.
+     */
+    protected abstract void present();
+
+    /**
+     * Converts a loaded picture to the format that draws fastest on the surface.
+     *
+     * @param image The loaded picture.
+     * @return The picture to draw.
+     */
+    protected Image prepare(BufferedImage image) {
+        return image;
+    }
+
+    /**
+     * @return Graphics of the current frame, starting a frame if none is being drawn.
+     */
+    private Graphics2D graphics() {
+        if (graphics == null) {
+            graphics = beginFrame();
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setStroke(PEN);
+            graphics.setColor(penColor);
+            graphics.setFont(font);
+        }
+        return graphics;
+    }
+
+    /**
+     * @param name File name of a picture.
+     * @return The picture read from its file.
+     */
+    private BufferedImage loadPicture(String name) {
+        try {
+            BufferedImage image = ImageIO.read(new File(name));
+            if (image != null) {
+                return image;
+            }
+        } catch (IOException e) {
+            // reported below like a missing file
+        }
+        throw new IllegalArgumentException("image " + name + " not found");
+    }
+
+    /**
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     * @return The rectangle in pixels.
+     */
+    private Rectangle2D.Double toPixels(double x, double y, double halfWidth, double halfHeight) {
+        double ws = 2 * halfWidth * width / Math.abs(xMax - xMin);
+        double hs = 2 * halfHeight * height / Math.abs(yMax - yMin);
+        return new Rectangle2D.Double(scaleX(x) - ws / 2, scaleY(y) - hs / 2, ws, hs);
+    }
+
+    /**
+     * @param x x in user coordinates.
+     * @return x in pixels.
+     */
+    protected double scaleX(double x){return width * (x - xMin) / (xMax - xMin);}
+
+    /**
+     * @param y y in user coordinates.
+     * @return y in pixels (growing downwards).
+     */
+    protected double scaleY(double y){return height * (yMax - y) / (yMax - yMin);}
+
+    /**
+     * @param x x in pixels.
+     * @return x in user coordinates.
+     */
+    protected double userX(double x){return xMin + x * (xMax - xMin) / width;}
+
+    /**
+     * @param y y in pixels (growing downwards).
+     * @return y in user coordinates.
+     */
+    protected double userY(double y){return yMax - y * (yMax - yMin) / height;}
+
+}
@@ -0,0 +1,314 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+
+/**
+ * The panel at the bottom of the screen with the buttons, the deaths, the stage, the timer and the clue or help.
+ * Almost nothing on it changes from frame to frame, so it is drawn into a cached layer that is copied
+ * to the frame as one image. Every field remembers the value it shows and only its own part of the layer
+ * is drawn again when the value changes, which for most frames is just the timer digits.
+ * The clue and help text of a stage are rasterized once into images of their own.
+ * The layer has as many pixels per screen unit as the renderer's frames, so it is copied without scaling.
+ * Renderers that can only draw pictures from files get the panel as plain text calls instead,
+ * with the texts of the fields still only built when their values change.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Hud {
+
+    // DATA FIELDS of the class
+    private static final Color PANEL_COLOR = new Color(56, 93, 172);
+    private static final Font FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private int[] area; // panel in screen coordinates {xLeftDown, yLeftDown, xRightUp, yRightUp}
+    private int scale; // pixels of the layer per screen unit
+    private BufferedImage layer;
+    private Graphics2D graphics;
+    private FontMetrics metrics;
+
+    // Values shown on the layer, to notice when a field changes
+    private int shownDeaths = -1;
+    private int shownStage = -1;
+    private String shownTime = null;
+    private Stage shownClueStage = null;
+    private boolean shownHelp = false;
+    private int fieldRenders = 0;
+
+    // Texts of the changing fields, built again only when their values change
+    private int textDeaths = -1;
+    private String deathsText;
+    private int textStage = -1;
+    private String stageText;
+
+    // Clue and help of every stage, rasterized once
+    private HashMap<Stage, BufferedImage> clueImages = new HashMap<Stage, BufferedImage>();
+    private HashMap<Stage, BufferedImage> helpImages = new HashMap<Stage, BufferedImage>();
+
+
+    /**
+     * Creates the panel with one pixel per screen unit; the layer is drawn on the first frame.
+     *
+     * @param area Panel in screen coordinates as {xLeftDown, yLeftDown, xRightUp, yRightUp}.
+     */
+    public Hud(int[] area) {
+        this(area, 1);
+    }
+
+    /**
+     * Creates the panel; the layer is drawn on the first frame.
+     *
+     * @param area  Panel in screen coordinates as {xLeftDown, yLeftDown, xRightUp, yRightUp}.
+     * @param scale Pixels of the layer per screen unit, see Renderer.getImageScale().
+     */
+    public Hud(int[] area, int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("the layer needs at least one pixel per unit: " + scale);
+        }
+        this.area = area.clone();
+        this.scale = scale;
+        this.layer = new BufferedImage(scale * (area[2] - area[0]), scale * (area[3] - area[1]), BufferedImage.TYPE_INT_RGB);
+        this.graphics = createGraphics(layer, scale);
+        this.metrics = graphics.getFontMetrics();
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Number of times a field was drawn into the layer, the whole panel counting once.
+     */
+    public int getFieldRenders(){return fieldRenders;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Draws the panel, from the cached layer if the renderer can draw images from memory.
+     *
+     * @param renderer The renderer, set to screen coordinates.
+     * @param deaths   Number of deaths.
+     * @param stage    Number of the stage, from 1.
+     * @param time     Timer text.
+     * @param current  The stage being played, for its clue or help.
+     * @param isHelp   true to show the help instead of the clue.
+     */
+    public void draw(Renderer renderer, int deaths, int stage, String time, Stage current, boolean isHelp) {
+        if (!renderer.getCanDrawImages()) {
+            drawText(renderer, deaths, stage, time, current, isHelp);
+            return;
+        }
+        update(deaths, stage, time, current, isHelp);
+        renderer.image((area[0] + area[2]) / 2.0, (area[1] + area[3]) / 2.0, layer,
+                area[2] - area[0], area[3] - area[1]);
+    }
+
+    /**
+     * Draws the panel with text calls, every frame anew, for renderers that cannot draw the layer.
+     *
+     * @param renderer The renderer, set to screen coordinates.
+     * @param deaths   Number of deaths.
+     * @param stage    Number of the stage, from 1.
+     * @param time     Timer text.
+     * @param current  The stage being played, for its clue or help.
+     * @param isHelp   true to show the help instead of the clue.
+     */
+    public void drawText(Renderer renderer, int deaths, int stage, String time, Stage current, boolean isHelp) {
+        renderer.setPenColor(PANEL_COLOR); // Color of the area
+        renderer.filledRectangle((area[2] - area[0]) / 2.0, (area[3] - area[1]) / 2.0,
+                (area[2] - area[0]) / 2.0, (area[3] - area[1]) / 2.0); // Drawing bottom part
+        renderer.setPenColor(Color.WHITE);
+        renderer.setFont(FONT);
+
+        renderer.text(250, 85, "Help");
+        renderer.rectangle(250, 85, 40, 15); // Help button
+        renderer.text(550, 85, "Restart");
+        renderer.rectangle(550, 85, 40, 15); // Restart button
+        renderer.text(400, 20, "RESET THE GAME");
+        renderer.rectangle(400, 20, 80, 15); // Reset button
+        renderer.text(700, 75, deathsText(deaths));
+        renderer.text(700, 50, stageText(stage));
+        renderer.text(100, 50, time);
+        renderer.text(100, 75, "Level: 1");
+
+        // Display clue or help
+        if (isHelp) {
+            renderer.text(400, 85, "Help:");
+            renderer.text(400, 55, current.getHelp());
+        } else {
+            renderer.text(400, 85, "Clue:");
+            renderer.text(400, 55, current.getClue());
+        }
+    }
+
+    /**
+     * Brings the layer up to date, drawing only the fields whose value changed.
+     *
+     * @param deaths  Number of deaths.
+     * @param stage   Number of the stage, from 1.
+     * @param time    Timer text.
+     * @param current The stage being played.
+     * @param isHelp  true to show the help instead of the clue.
+     */
+    private void update(int deaths, int stage, String time, Stage current, boolean isHelp) {
+        // The clue can be wider than its place, so changing it draws the whole panel again
+        if (current != shownClueStage || isHelp != shownHelp) {
+            drawPanel(current, isHelp);
+            shownDeaths = -1;
+            shownStage = -1;
+            shownTime = null;
+        }
+        if (deaths != shownDeaths) {
+            drawField(700, 75, 80, deathsText(deaths));
+            shownDeaths = deaths;
+        }
+        if (stage != shownStage) {
+            drawField(700, 50, 80, stageText(stage));
+            shownStage = stage;
+        }
+        if (!time.equals(shownTime)) { // the clock hands out the same string until the digits change
+            drawField(100, 50, 80, time);
+            shownTime = time;
+        }
+    }
+
+    /**
+     * @param deaths Number of deaths.
+     * @return The text of the deaths field, built again only when the number changed.
+     */
+    private String deathsText(int deaths) {
+        if (deaths != textDeaths) {
+            deathsText = "Deaths: " + deaths;
+            textDeaths = deaths;
+        }
+        return deathsText;
+    }
+
+    /**
+     * @param stage Number of the stage, from 1.
+     * @return The text of the stage field, built again only when the number changed.
+     */
+    private String stageText(int stage) {
+        if (stage != textStage) {
+            stageText = "Stage: " + stage;
+            textStage = stage;
+        }
+        return stageText;
+    }
+
+    /**
+     * Draws the background, the buttons, the fixed labels and the clue or help into the layer.
+     *
+     * @param current The stage being played.
+     * @param isHelp  true to show the help instead of the clue.
+     */
+    private void drawPanel(Stage current, boolean isHelp) {
+        graphics.setColor(PANEL_COLOR);
+        graphics.fillRect(0, 0, area[2] - area[0], area[3] - area[1]);
+        graphics.setColor(Color.WHITE);
+        drawString(graphics, metrics, 250, 85, "Help");
+        drawRectangle(250, 85, 40, 15); // Help button
+        drawString(graphics, metrics, 550, 85, "Restart");
+        drawRectangle(550, 85, 40, 15); // Restart button
+        drawString(graphics, metrics, 400, 20, "RESET THE GAME");
+        drawRectangle(400, 20, 80, 15); // Reset button
+        drawString(graphics, metrics, 100, 75, "Level: 1");
+
+        BufferedImage clue = isHelp ? helpImages.get(current) : clueImages.get(current);
+        if (clue == null) {
+            clue = rasterize(isHelp ? "Help:" : "Clue:", isHelp ? current.getHelp() : current.getClue());
+            (isHelp ? helpImages : clueImages).put(current, clue);
+        }
+        int clueWidth = clue.getWidth() / scale;
+        graphics.drawImage(clue, (int) Math.round(400 - area[0] - clueWidth / 2.0), area[3] - 100,
+                clueWidth, clue.getHeight() / scale, null);
+
+        shownClueStage = current;
+        shownHelp = isHelp;
+        fieldRenders++;
+    }
+
+    /**
+     * Clears the place of a field and draws its new text.
+     *
+     * @param x         x of the center in screen coordinates.
+     * @param y         y of the center in screen coordinates.
+     * @param halfWidth Half of the width of the field's place.
+     * @param text      The text.
+     */
+    private void drawField(double x, double y, int halfWidth, String text) {
+        int left = (int) Math.round(x - area[0] - halfWidth);
+        int baseline = (int) Math.round(area[3] - y + metrics.getDescent());
+        graphics.setColor(PANEL_COLOR);
+        graphics.fillRect(left, baseline - metrics.getAscent() - 1, 2 * halfWidth, metrics.getAscent() + metrics.getDescent() + 2);
+        graphics.setColor(Color.WHITE);
+        drawString(graphics, metrics, x, y, text);
+        fieldRenders++;
+    }
+
+    /**
+     * Draws the outline of a rectangle into the layer.
+     *
+     * @param x          x of the center in screen coordinates.
+     * @param y          y of the center in screen coordinates.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    private void drawRectangle(double x, double y, double halfWidth, double halfHeight) {
+        graphics.draw(new Rectangle2D.Double(x - area[0] - halfWidth, area[3] - y - halfHeight,
+                2 * halfWidth, 2 * halfHeight));
+    }
+
+    /**
+     * Draws text centered on a point, placed like Graphics2DRenderer.text() places it.
+     *
+     * @param g       Graphics of the layer.
+     * @param metrics Metrics of the font.
+     * @param x       x of the center in screen coordinates.
+     * @param y       y of the center in screen coordinates.
+     * @param text    The text.
+     */
+    private void drawString(Graphics2D g, FontMetrics metrics, double x, double y, String text) {
+        g.drawString(text, (float) (x - area[0] - metrics.stringWidth(text) / 2.0),
+                (float) (area[3] - y + metrics.getDescent()));
+    }
+
+    /**
+     * Rasterizes the clue or help of a stage: the label at y 85 and the text at y 55 of the panel,
+     * on a transparent image as wide as the longer line whose top is at y 100.
+     *
+     * @param label "Clue:" or "Help:".
+     * @param text  The clue or help.
+     * @return The image.
+     */
+    private BufferedImage rasterize(String label, String text) {
+        int width = Math.max(metrics.stringWidth(label), metrics.stringWidth(text)) + 2;
+        BufferedImage image = new BufferedImage(scale * width, scale * 60, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = createGraphics(image, scale);
+        g.setColor(Color.WHITE);
+        // place the lines as in the panel, then move them onto the image
+        g.translate(width / 2.0 - (400 - area[0]), -(area[3] - 100));
+        drawString(g, metrics, 400, 85, label);
+        drawString(g, metrics, 400, 55, text);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * @param image An image to draw into.
+     * @param scale Pixels of the image per screen unit.
+     * @return Its graphics in screen units, set up like the frames of Graphics2DRenderer.
+     */
+    private static Graphics2D createGraphics(BufferedImage image, int scale) {
+        Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setStroke(Graphics2DRenderer.PEN);
+        g.setFont(FONT);
+        return g;
+    }
+
+}
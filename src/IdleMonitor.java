@@ -0,0 +1,132 @@
+import java.awt.AWTEvent;
+import java.awt.Frame;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets the game loop sleep while nothing on the screen can change.
+ * It listens to the key, mouse button and focus events of every window of the program,
+ * so the loop can block until the player does something instead of redrawing the same
+ * frame 50 times a second, and can tell when the window is in the background.
+ * Works with any renderer that opens an AWT window; without a window the game counts as focused.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class IdleMonitor implements AWTEventListener {
+
+    // DATA FIELDS of the class
+    private static final long GRACE_NANOS = 250_000_000L; // stay awake after input, the window may read it a bit later
+    private long lastInput = System.nanoTime(); // time of the last key or mouse button event
+    private long inputCount = 0;
+    private boolean isFocused;
+
+
+    /**
+     * Starts listening. Create it after the window is opened.
+     */
+    public IdleMonitor() {
+        this.isFocused = findFocus();
+        Toolkit.getDefaultToolkit().addAWTEventListener(this,
+                AWTEvent.KEY_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK | AWTEvent.WINDOW_FOCUS_EVENT_MASK);
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return true if a window of the program has the focus, or the program has no window.
+     */
+    public synchronized boolean getIsFocused(){return isFocused;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Records an event of one of the windows and wakes the waiting loop.
+     * Called on the event dispatch thread.
+     *
+     * @param event The event.
+     */
+    public synchronized void eventDispatched(AWTEvent event) {
+        if (event.getID() == WindowEvent.WINDOW_GAINED_FOCUS) {
+            isFocused = true;
+        } else if (event.getID() == WindowEvent.WINDOW_LOST_FOCUS) {
+            isFocused = false;
+        } else {
+            lastInput = System.nanoTime();
+            inputCount++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Waits for a key or mouse button event, unless there was one a moment ago.
+     * Returns early when the focus changes.
+     *
+     * @param timeoutNanos Longest wait in nanoseconds, Long.MAX_VALUE to wait for input only.
+     * @return true if it waited, false if recent input keeps the loop at its frame rate.
+     */
+    public synchronized boolean awaitInput(long timeoutNanos) {
+        long now = System.nanoTime();
+        if (now - lastInput < GRACE_NANOS) {
+            return false;
+        }
+        long seen = inputCount;
+        boolean wasFocused = isFocused;
+        long remaining = timeoutNanos;
+        while (inputCount == seen && isFocused == wasFocused && remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long time = System.nanoTime();
+            remaining -= time - now;
+            now = time;
+        }
+        return true;
+    }
+
+    /**
+     * Waits until a window of the program gets the focus, or the timeout passes.
+     * Focus events can be missed while the window is being created, so the windows are also checked after the timeout.
+     *
+     * @param timeoutNanos Longest wait in nanoseconds.
+     */
+    public synchronized void awaitFocus(long timeoutNanos) {
+        if (!isFocused) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, timeoutNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!isFocused) {
+            isFocused = findFocus();
+        }
+    }
+
+    /**
+     * Stops listening.
+     */
+    public void close() {
+        Toolkit.getDefaultToolkit().removeAWTEventListener(this);
+    }
+
+    /**
+     * @return true if one of the program's windows has the focus, or there is no window.
+     */
+    private static boolean findFocus() {
+        boolean hasWindow = false;
+        for (Frame frame : Frame.getFrames()) {
+            if (frame.isFocused()) {
+                return true;
+            }
+            hasWindow |= frame.isDisplayable();
+        }
+        return !hasWindow;
+    }
+
+}
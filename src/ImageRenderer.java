@@ -0,0 +1,64 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * A Java2D backend that draws into a picture instead of a window,
+ * for headless benchmarks and exporting frames.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class ImageRenderer extends Graphics2DRenderer {
+
+    // DATA FIELDS of the class
+    private BufferedImage image;
+    private InputSource input = new NullRenderer();
+
+
+    // GETTER METHODS
+    /**
+     * @return The picture frames are drawn into, null before open().
+     */
+    public BufferedImage getImage(){return image;}
+    /**
+     * @return The input of this backend, no input unless one was set.
+     */
+    public InputSource getInput(){return input;}
+
+
+    // SETTER METHODS
+    /**
+     * @param image The picture the following frames are drawn into; it must have the opened size.
+     */
+    public void setImage(BufferedImage image){this.image = image;}
+    /**
+     * @param input Input the game reads while drawing into the picture.
+     */
+    public void setInput(InputSource input){this.input = input;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Creates the picture.
+     *
+     * @param width  Width in pixels.
+     * @param height Height in pixels.
+     */
+    public void open(int width, int height) {
+        super.open(width, height);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * @return Graphics of the picture.
+     */
+    protected Graphics2D beginFrame() {
+        return image.createGraphics();
+    }
+
+    /**
+     * The frame stays in the picture.
+     */
+    protected void present(){}
+
+}
@@ -0,0 +1,30 @@
+/**
+ * Keyboard and mouse state the game reads every frame.
+ * Each renderer window provides its own, so input follows the chosen backend.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public interface InputSource {
+
+    /**
+     * @param keyCode A KeyEvent key code.
+     * @return true if the key is held down.
+     */
+    boolean isKeyPressed(int keyCode);
+
+    /**
+     * @return true if a mouse button is held down.
+     */
+    boolean isMousePressed();
+
+    /**
+     * @return x coordinate of the mouse in the current user scale.
+     */
+    double mouseX();
+
+    /**
+     * @return y coordinate of the mouse in the current user scale.
+     */
+    double mouseY();
+
+}
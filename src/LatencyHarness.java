@@ -0,0 +1,404 @@
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the input latency of the game loop: the time from a key press arriving to the
+ * show() of the first frame that draws the player moved in the pressed direction.
+ * A second thread presses the right and left keys of the first stage at random moments, like
+ * the window's event thread would, and the game runs headless on the Java2D backend in one of
+ * several loop configurations:
+ * "pause" is the loop the game had before the frame pacer (step by the time since the last frame,
+ * draw, show, then pause 20 ms), copied here as the baseline,
+ * "game" is the game's own loop, Game.run(), at the frame rate given by -fps,
+ * "thread" is Game.run() drawing into offscreen pictures while a separate render thread shows
+ * the newest one at 60 Hz.
+ * Usage: java LatencyHarness [-config pause|game|thread|all] [-trials N] [-fps F]
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class LatencyHarness {
+
+    // DATA FIELDS of the class
+    private String config;
+    private int trials;
+    private int frameRate;
+    private SyntheticKeys keys = new SyntheticKeys();
+    private long pressTime = 0;    // System.nanoTime() of the press being measured, 0 when none
+    private int pressDirection = 0; // 1 for right, -1 for left
+    private double pressX = 0;     // player x on the screen when the key was pressed
+    private double shownX = Double.NaN; // player x in the frame on the screen, NaN before the first frame
+    private long[] latencies;
+    private int count = 0;
+    private volatile boolean isRunning = true;
+
+
+    /**
+     * Constructs a harness for one loop configuration.
+     *
+     * @param config    "pause", "game" or "thread".
+     * @param trials    Number of key presses to measure.
+     * @param frameRate Frames per second of the game's loop, 0 for uncapped; the "pause" loop ignores it.
+     */
+    public LatencyHarness(String config, int trials, int frameRate) {
+        if (!config.equals("pause") && !config.equals("game") && !config.equals("thread")) {
+            throw new IllegalArgumentException("unknown loop configuration: " + config);
+        }
+        this.config = config;
+        this.trials = trials;
+        this.frameRate = frameRate;
+        this.latencies = new long[trials];
+    }
+
+    /**
+     * Measures the configurations given on the command line and prints their latency distributions.
+     * @param args "-config C" (all by default), "-trials N" (100 by default) and "-fps F" (50 by default).
+     * @throws InterruptedException if the measurement is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String config = Main.option(args, "-config", "all");
+        int trials = Integer.parseInt(Main.option(args, "-trials", "100"));
+        int frameRate = Integer.parseInt(Main.option(args, "-fps", "50"));
+        String[] configs = config.equals("all") ? new String[]{"pause", "game", "thread"} : new String[]{config};
+
+        long[][] results = new long[configs.length][];
+        for (int i = 0; i < configs.length; i++) {
+            results[i] = new LatencyHarness(configs[i], trials, frameRate).measure();
+        }
+
+        // the game prints its own lines while it runs, so the table comes after all of them
+        System.out.println("input to display latency in ms, " + trials + " presses each, game at -fps " + frameRate);
+        System.out.println("config   measured     min     p50     p90     p99     max    mean");
+        for (int i = 0; i < configs.length; i++) {
+            long[] result = results[i];
+            Arrays.sort(result);
+            double mean = 0;
+            for (long latency : result) {
+                mean += latency / 1e6 / result.length;
+            }
+            if (result.length == 0) {
+                System.out.printf("%-8s %8d%n", configs[i], 0);
+                continue;
+            }
+            System.out.printf("%-8s %8d  %6.1f  %6.1f  %6.1f  %6.1f  %6.1f  %6.1f%n", configs[i], result.length,
+                    result[0] / 1e6, percentile(result, 0.5), percentile(result, 0.9),
+                    percentile(result, 0.99), result[result.length - 1] / 1e6, mean);
+        }
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Runs the game in the configured loop until every press was measured.
+     *
+     * @return Latency of every press in nanoseconds, in the order they were pressed.
+     * @throws InterruptedException if the measurement is interrupted.
+     */
+    public long[] measure() throws InterruptedException {
+        FrameQueue frames = config.equals("thread") ? new FrameQueue() : null;
+        Game game = new Game(Main.createStages());
+        ProbeRenderer renderer = new ProbeRenderer(this, game, frames);
+        renderer.setInput(keys);
+        game.setRenderer(renderer);
+        game.setFrameRate(frameRate);
+        game.start();
+        // stand-ins for missing sprite files, so the harness does not depend on the art
+        BufferedImage sprite = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        for (String name : new String[]{"misc/Spikes.png", "misc/ElephantRight.png", "misc/ElephantLeft.png"}) {
+            if (!new File(name).exists()) {
+                renderer.putPicture(name, sprite);
+            }
+        }
+
+        Thread presser = new Thread(this::pressKeys, "key-presser");
+        Thread render = frames == null ? null : new Thread(() -> showFrames(frames), "render");
+        presser.start();
+        try {
+            if (render != null) {
+                renderer.setImage(frames.next(0));
+                render.start();
+            }
+            if (config.equals("pause")) {
+                runPause(game, renderer);
+            } else {
+                game.run(); // the probe finishes it once the presses are done
+            }
+        } finally {
+            isRunning = false; // also stops the presser if the loop failed
+        }
+        presser.join();
+        if (render != null) {
+            render.join();
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * The loop the game had before the frame pacer: steps the game by the time since the last frame,
+     * draws and shows the frame, then pauses 20 ms like StdDraw.pause(20).
+     *
+     * @param game     The game.
+     * @param renderer The renderer of the game.
+     */
+    private void runPause(Game game, ProbeRenderer renderer) {
+        long lastTime = System.nanoTime();
+        while (isRunning) {
+            long currentTime = System.nanoTime();
+            long deltaTime = currentTime - lastTime;
+            lastTime = currentTime;
+            if (game.tick(deltaTime)) { // the old loop showed nothing in the step that finished a stage
+                renderer.show();
+            }
+            sleepMillis(20);
+        }
+    }
+
+    /**
+     * The render thread: shows the newest finished frame of the game at 60 Hz.
+     *
+     * @param frames The frames finished by the game's loop.
+     */
+    private void showFrames(FrameQueue frames) {
+        BufferedImage screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        FramePacer pacer = new FramePacer(60);
+        long shown = -1;
+        while (isRunning) {
+            long frame = frames.copyNewest(screen, shown);
+            if (frame > shown) {
+                shown = frame;
+                displayed(frames.getPlayerX(frame));
+            }
+            pacer.sync();
+        }
+    }
+
+    /**
+     * Presses the keys: each press waits a random 20 to 100 ms, so it lands anywhere in a frame,
+     * and is held until it was measured.
+     */
+    private void pressKeys() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int trial = 0; trial < trials && isRunning; trial++) {
+            sleepMillis(20 + random.nextInt(80));
+            // alternate the direction so the player stays near the spawn point
+            synchronized (this) {
+                pressDirection = trial % 2 == 0 ? 1 : -1;
+                keys.setKey(pressDirection > 0 ? KeyEvent.VK_RIGHT : KeyEvent.VK_LEFT);
+                pressTime = System.nanoTime();
+                pressX = shownX;
+                long deadline = pressTime + 1_000_000_000L;
+                while (pressTime != 0 && System.nanoTime() < deadline) {
+                    try {
+                        wait(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                pressTime = 0; // a press that never moved the player is not counted
+                keys.setKey(-1);
+            }
+        }
+        isRunning = false;
+    }
+
+    /**
+     * Called when a frame reaches the screen; completes the measured press once a shown frame
+     * draws the player moved in the pressed direction.
+     *
+     * @param playerX x of the player drawn in the frame, NaN if the frame has no player.
+     */
+    private synchronized void displayed(double playerX) {
+        shownX = playerX;
+        if (pressTime != 0 && (playerX - pressX) * pressDirection > 0) {
+            latencies[count++] = System.nanoTime() - pressTime;
+            pressTime = 0;
+            notifyAll();
+        }
+    }
+
+    /**
+     * @param sorted   Sorted latencies in nanoseconds.
+     * @param fraction Fraction of the latencies below the result, e.g. 0.9.
+     * @return The percentile in milliseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1e6;
+    }
+
+    /**
+     * @param millis Milliseconds to sleep.
+     */
+    private static void sleepMillis(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Keyboard of the harness: at most one key is held.
+     */
+    private static class SyntheticKeys implements InputSource {
+
+        // DATA FIELDS of the class
+        private volatile int key = -1;
+
+        /**
+         * @param key Key code of the held key, -1 for none.
+         */
+        private void setKey(int key){this.key = key;}
+
+        /**
+         * @param keyCode A KeyEvent key code.
+         * @return true if the key is held.
+         */
+        public boolean isKeyPressed(int keyCode){return keyCode == key;}
+
+        /**
+         * @return false, the harness does not click.
+         */
+        public boolean isMousePressed(){return false;}
+
+        /**
+         * @return 0.
+         */
+        public double mouseX(){return 0;}
+
+        /**
+         * @return 0.
+         */
+        public double mouseY(){return 0;}
+    }
+
+    /**
+     * Draws into a picture, notes where the player is drawn and reports the frame to the harness
+     * when it is shown, or hands it to the render thread. Finishes the game once the presses are done.
+     */
+    private static class ProbeRenderer extends ImageRenderer {
+
+        // DATA FIELDS of the class
+        private LatencyHarness harness;
+        private Game game;
+        private FrameQueue frames; // null if show() puts the frame on the screen
+        private long frame = 0;    // number of the frame being drawn
+        private double playerX = Double.NaN; // x of the player in the frame being drawn
+
+        /**
+         * @param harness The harness to report to.
+         * @param game    The game drawn, finished when the harness stops.
+         * @param frames  Pictures for a render thread to show, null if show() puts the frame on the screen.
+         */
+        private ProbeRenderer(LatencyHarness harness, Game game, FrameQueue frames) {
+            this.harness = harness;
+            this.game = game;
+            this.frames = frames;
+        }
+
+        /**
+         * Notes the player's position when its picture is drawn.
+         *
+         * @param x       x of the center.
+         * @param y       y of the center.
+         * @param name    File name of the picture.
+         * @param width   Width in user coordinates.
+         * @param height  Height in user coordinates.
+         * @param degrees Rotation in degrees.
+         */
+        public void picture(double x, double y, String name, double width, double height, double degrees) {
+            if (name.startsWith("misc/Elephant")) {
+                playerX = x;
+            }
+            super.picture(x, y, name, width, height, degrees);
+        }
+
+        /**
+         * @return Graphics of a new frame, which has no player drawn yet.
+         */
+        protected Graphics2D beginFrame() {
+            playerX = Double.NaN;
+            return super.beginFrame();
+        }
+
+        /**
+         * Reports the frame as shown, or publishes it to the render thread and draws the next one into a free picture.
+         */
+        protected void present() {
+            if (frames == null) {
+                harness.displayed(playerX);
+            } else {
+                frames.publish(frame, playerX);
+                setImage(frames.next(frame + 1));
+            }
+            frame++;
+            if (!harness.isRunning) {
+                game.finish();
+            }
+        }
+    }
+
+    /**
+     * Three pictures passed from the game loop to the render thread: the loop draws into one,
+     * the newest finished one waits, and the render thread copies from the third.
+     */
+    private static class FrameQueue {
+
+        // DATA FIELDS of the class
+        private BufferedImage[] images = new BufferedImage[3];
+        private double[] playerXs = new double[3]; // x of the player drawn in each picture
+        private long newest = -1;
+
+        /**
+         * Creates the pictures.
+         */
+        private FrameQueue() {
+            for (int i = 0; i < images.length; i++) {
+                images[i] = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+            }
+        }
+
+        /**
+         * @param frame Number of the frame about to be drawn.
+         * @return The picture to draw it into, never one the render thread may be copying.
+         */
+        private BufferedImage next(long frame){return images[(int) (frame % images.length)];}
+
+        /**
+         * @param frame Number of a frame that is still in its picture, the newest or the one being copied.
+         * @return x of the player drawn in the frame.
+         */
+        private synchronized double getPlayerX(long frame){return playerXs[(int) (frame % images.length)];}
+
+        /**
+         * @param frame   Number of the frame that was finished.
+         * @param playerX x of the player drawn in it.
+         */
+        private synchronized void publish(long frame, double playerX) {
+            playerXs[(int) (frame % images.length)] = playerX;
+            newest = frame;
+        }
+
+        /**
+         * Copies the newest finished frame to the screen if it is newer than the shown one.
+         *
+         * @param screen The screen picture.
+         * @param shown  Number of the frame on the screen.
+         * @return Number of the frame on the screen afterwards.
+         */
+        private synchronized long copyNewest(BufferedImage screen, long shown) {
+            if (newest <= shown) {
+                return shown;
+            }
+            Graphics2D g = screen.createGraphics();
+            g.drawImage(images[(int) (newest % images.length)], 0, 0, null);
+            g.dispose();
+            return newest;
+        }
+    }
+
+}
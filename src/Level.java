@@ -0,0 +1,254 @@
+import java.util.Arrays;
+
+/**
+ * Holds the geometry of a level: obstacles, spikes, door, button, pipes and spawn point.
+ * The original hand made level is DEFAULT, larger ones come from LevelGenerator.
+ * A level never changes after it is built, so one level and the indexes derived from it
+ * (spatial grids and collision bitmap, built on first use) are shared by every Map, game and thread
+ * that plays it; the moving door and button are copied by each Map. The arrays returned by the
+ * getters are the level's own and must not be modified.
+ * Rectangle format is int[] = {xLeftDown, yLeftDown, xRightUp, yRightUp}
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Level {
+
+    // DATA FIELDS of the class
+    public static final Level DEFAULT = createDefault();
+    private static final int GRID_CELL_SIZE = 100;
+    private final int width;
+    private final int height;
+    private final int[][] obstacles;
+    private final int[][] spikes;
+    private final int[] spikeAngles; // rotation of each spike picture in degrees
+    private final int[] button;
+    private final int[] buttonFloor;
+    private final int[] door;
+    private final int[][] startPipe;
+    private final int[][] exitPipe;
+    private final double[] spawnPoint;
+    private final int bitmapCellSize; // 0 means collisions loop over the rectangle lists
+    private final Level base; // the variant without a bitmap, which owns the grids and the other variants
+    private SpatialGrid obstacleGrid; // built on first use, guarded by base
+    private SpatialGrid spikeGrid;
+    private CollisionBitmap bitmap;   // built on first use, guarded by this
+    private Level[] variants = new Level[0]; // the variants with a bitmap, guarded by base
+
+
+    /**
+     * Constructs a level from its geometry.
+     *
+     * @param width       Width of the level.
+     * @param height      Height of the level.
+     * @param obstacles   Solid rectangles.
+     * @param spikes      Spike rectangles.
+     * @param spikeAngles Rotation of each spike picture (0, 90, 180 or 270).
+     * @param button      Button rectangle in its released position.
+     * @param buttonFloor Button rectangle in its pressed position.
+     * @param door        Door rectangle when closed.
+     * @param startPipe   Rectangles of the start pipe (drawing only).
+     * @param exitPipe    Rectangles of the exit pipe, the first one is the exit area.
+     * @param spawnPoint  x and y where the player spawns.
+     */
+    public Level(int width, int height, int[][] obstacles, int[][] spikes, int[] spikeAngles,
+                 int[] button, int[] buttonFloor, int[] door,
+                 int[][] startPipe, int[][] exitPipe, double[] spawnPoint) {
+        this.width = width;
+        this.height = height;
+        this.obstacles = obstacles;
+        this.spikes = spikes;
+        this.spikeAngles = spikeAngles;
+        this.button = button;
+        this.buttonFloor = buttonFloor;
+        this.door = door;
+        this.startPipe = startPipe;
+        this.exitPipe = exitPipe;
+        this.spawnPoint = spawnPoint;
+        this.bitmapCellSize = 0;
+        this.base = this;
+    }
+
+    /**
+     * Constructs a variant of a level with the same geometry and another collision backend.
+     *
+     * @param base           The level without a bitmap.
+     * @param bitmapCellSize Cell size of the collision bitmap.
+     */
+    private Level(Level base, int bitmapCellSize) {
+        this.width = base.width;
+        this.height = base.height;
+        this.obstacles = base.obstacles;
+        this.spikes = base.spikes;
+        this.spikeAngles = base.spikeAngles;
+        this.button = base.button;
+        this.buttonFloor = base.buttonFloor;
+        this.door = base.door;
+        this.startPipe = base.startPipe;
+        this.exitPipe = base.exitPipe;
+        this.spawnPoint = base.spawnPoint;
+        this.bitmapCellSize = bitmapCellSize;
+        this.base = base;
+    }
+
+    /**
+     * Builds the original 800x600 level of the game.
+     * It is built once as DEFAULT, use that instead.
+     *
+     * @return The default level.
+     */
+    private static Level createDefault() {
+        int[][] obstacles = {
+                new int[]{0,   120, 120, 270}, new int[]{0,   270, 168, 330},
+                new int[]{0,   330, 30,  480}, new int[]{0,   480, 180, 600},
+                new int[]{180, 570, 680, 600}, new int[]{270, 540, 300, 570},
+                new int[]{590, 540, 620, 570}, new int[]{680, 510, 800, 600},
+                new int[]{710, 450, 800, 510}, new int[]{740, 420, 800, 450},
+                new int[]{770, 300, 800, 420}, new int[]{680, 240, 800, 300},
+                new int[]{680, 300, 710, 330}, new int[]{770, 180, 800, 240},
+                new int[]{0,   120, 800, 150}, new int[]{560, 150, 800, 180},
+                new int[]{530, 180, 590, 210}, new int[]{530, 210, 560, 240},
+                new int[]{320, 150, 440, 210}, new int[]{350, 210, 440, 270},
+                new int[]{220, 270, 310, 300}, new int[]{360, 360, 480, 390},
+                new int[]{530, 310, 590, 340}, new int[]{560, 400, 620, 430}};
+
+        int[][] spikes = {
+                new int[]{30, 333,  50,  423}, new int[]{121, 150, 207, 170},
+                new int[]{441, 150, 557, 170}, new int[]{591, 180, 621, 200},
+                new int[]{750, 301, 769, 419}, new int[]{680, 490, 710, 510},
+                new int[]{401, 550, 521, 570}};
+
+        // Spike directions according their locations
+        int[] spikeAngles = new int[spikes.length];
+        for (int i = 0; i < spikes.length; i++) {
+            int[] spike = spikes[i];
+            if ((spike[3] + spike[1]) / 2.0 < 300.0) {
+                spikeAngles[i] = 0;
+            } else if (200.0 < (spike[3] + spike[1]) / 2.0 && (spike[3] + spike[1]) / 2.0 < 400.0) {
+                spikeAngles[i] = (spike[2] + spike[0]) < 400.0 ? 270 : 90;
+            } else {
+                spikeAngles[i] = 180;
+            }
+        }
+
+        return new Level(800, 600, obstacles, spikes, spikeAngles,
+                new int[]{400, 390, 470, 410},
+                new int[]{400, 390, 470, 400},
+                new int[]{685, 180, 700, 240},
+                new int[][]{new int[]{115, 450, 145, 480}, new int[]{110, 430, 150, 450}},
+                new int[][]{new int[]{720, 175, 740, 215}, new int[]{740, 180, 770, 210}},
+                new double[]{130, 465});
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Width of the level.
+     */
+    public int getWidth(){return width;}
+    /**
+     * @return Height of the level.
+     */
+    public int getHeight(){return height;}
+    /**
+     * @return Solid rectangles.
+     */
+    public int[][] getObstacles(){return obstacles;}
+    /**
+     * @return Spike rectangles.
+     */
+    public int[][] getSpikes(){return spikes;}
+    /**
+     * @return Rotation of each spike picture in degrees.
+     */
+    public int[] getSpikeAngles(){return spikeAngles;}
+    /**
+     * @return Button rectangle in its released position.
+     */
+    public int[] getButton(){return button;}
+    /**
+     * @return Button rectangle in its pressed position.
+     */
+    public int[] getButtonFloor(){return buttonFloor;}
+    /**
+     * @return Door rectangle when closed.
+     */
+    public int[] getDoor(){return door;}
+    /**
+     * @return Rectangles of the start pipe.
+     */
+    public int[][] getStartPipe(){return startPipe;}
+    /**
+     * @return Rectangles of the exit pipe.
+     */
+    public int[][] getExitPipe(){return exitPipe;}
+    /**
+     * @return x and y where the player spawns.
+     */
+    public double[] getSpawnPoint(){return spawnPoint;}
+    /**
+     * @return Cell size of the collision bitmap, 0 if the level uses the rectangle lists.
+     */
+    public int getBitmapCellSize(){return bitmapCellSize;}
+    /**
+     * @return Grid over the obstacles, shared by every variant of the level.
+     */
+    public SpatialGrid getObstacleGrid() {
+        synchronized (base) {
+            if (base.obstacleGrid == null) {
+                base.obstacleGrid = new SpatialGrid(obstacles, width, height, GRID_CELL_SIZE);
+            }
+            return base.obstacleGrid;
+        }
+    }
+    /**
+     * @return Grid over the spikes, shared by every variant of the level.
+     */
+    public SpatialGrid getSpikeGrid() {
+        synchronized (base) {
+            if (base.spikeGrid == null) {
+                base.spikeGrid = new SpatialGrid(spikes, width, height, GRID_CELL_SIZE);
+            }
+            return base.spikeGrid;
+        }
+    }
+    /**
+     * @return The collision bitmap of this variant, null if it uses the rectangle lists.
+     */
+    public synchronized CollisionBitmap getBitmap() {
+        if (bitmap == null && bitmapCellSize > 0) {
+            bitmap = new CollisionBitmap(this, bitmapCellSize);
+        }
+        return bitmap;
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Selects the collision backend. Variants are cached, so asking for the same
+     * cell size again returns the same level with its bitmap already built.
+     *
+     * @param bitmapCellSize Cell size of the collision bitmap, 0 to loop over the rectangle lists.
+     * @return The level with the same geometry and the given backend.
+     */
+    public Level withBitmapCellSize(int bitmapCellSize) {
+        if (bitmapCellSize < 0) {
+            throw new IllegalArgumentException("cell size must not be negative: " + bitmapCellSize);
+        }
+        if (bitmapCellSize == 0) {
+            return base;
+        }
+        synchronized (base) {
+            for (Level variant : base.variants) {
+                if (variant.bitmapCellSize == bitmapCellSize) {
+                    return variant;
+                }
+            }
+            Level variant = new Level(base, bitmapCellSize);
+            base.variants = Arrays.copyOf(base.variants, base.variants.length + 1);
+            base.variants[base.variants.length - 1] = variant;
+            return variant;
+        }
+    }
+
+}
@@ -0,0 +1,426 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates large levels out of screen sized chunks from a seed.
+ * Every chunk is a row of ledges with spike pits between them, plus some
+ * decoration (floating blocks, ceiling spikes) kept out of the jump paths.
+ * Ledge heights and gaps are limited by the weakest jump of the given stages,
+ * and each chunk is validated before it is used, so the level can always be completed.
+ * Chunks only depend on the seed and their index, so they are generated in parallel.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class LevelGenerator {
+
+    // DATA FIELDS of the class
+    public static final int SCREEN_WIDTH = 800;
+    public static final int SCREEN_HEIGHT = 600;
+    private static final int FLOOR = 120;      // top of the timer area
+    private static final int PIT_DEPTH = 30;   // height of the spikes in a pit
+    private static final int CEILING = 570;
+    private static final int MIN_LEDGE = 180;
+    private static final int MAX_LEDGE = 360;
+    private static final int MIN_WIDTH = 60;
+    private static final int MIN_GAP = 40;
+    private static final int PLAYER_SIZE = 20;
+    private static final double MARGIN = 0.7;  // share of the physical jump limits used for placing
+    private static final int MAX_ATTEMPTS = 8;
+
+    private long seed;
+    private double maxRise;   // highest step every stage can climb
+    private double maxApex;   // highest point any stage reaches above its ledge
+    private double maxReach;  // longest jump of any stage, used for the jump corridors
+    private double[] reach;   // reach[dh + MAX_LEDGE] = shortest horizontal jump distance over all stages for height change dh
+
+
+    /**
+     * Constructs a generator whose levels are completable in every given stage.
+     *
+     * @param seed   Seed of the level, the same seed always gives the same level.
+     * @param stages Stages whose gravity and velocities limit the jumps.
+     */
+    public LevelGenerator(long seed, List<Stage> stages) {
+        this.seed = seed;
+        this.maxRise = Double.MAX_VALUE;
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("at least one stage is needed");
+        }
+        this.reach = new double[2 * MAX_LEDGE + 1];
+        Arrays.fill(reach, Double.MAX_VALUE);
+
+        for (Stage stage : stages) {
+            Mechanics mechanics = stage.resolveMechanics();
+            double apex = 0;
+            double y = 0;
+            double velocity = mechanics.getVelocityY();
+            while (velocity > 0) {
+                velocity += mechanics.getGravity();
+                y += velocity;
+                apex = Math.max(apex, y);
+            }
+            maxRise = Math.min(maxRise, apex);
+            maxApex = Math.max(maxApex, apex);
+            for (int dh = -MAX_LEDGE; dh <= MAX_LEDGE; dh++) {
+                double distance = jumpDistance(mechanics, dh);
+                reach[dh + MAX_LEDGE] = Math.min(reach[dh + MAX_LEDGE], distance);
+                maxReach = Math.max(maxReach, distance);
+            }
+        }
+        if (maxRise * MARGIN < 10 || reachFor(0) * MARGIN < MIN_GAP) {
+            throw new IllegalArgumentException("the stages cannot jump high or far enough for a generated level");
+        }
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Generates a level of the given number of screens.
+     *
+     * @param screens Number of 800 pixel wide chunks.
+     * @return The generated level.
+     */
+    public Level generate(int screens) {
+        if (screens < 1) {
+            throw new IllegalArgumentException("a level needs at least one screen");
+        }
+        Chunk[] chunks = IntStream.range(0, screens).parallel()
+                .mapToObj(index -> generateChunk(index, screens))
+                .toArray(Chunk[]::new);
+
+        // Join the chunks in order
+        List<int[]> obstacles = new ArrayList<int[]>();
+        List<int[]> spikes = new ArrayList<int[]>();
+        List<Integer> angles = new ArrayList<Integer>();
+        for (Chunk chunk : chunks) {
+            obstacles.addAll(chunk.obstacles);
+            spikes.addAll(chunk.spikes);
+            angles.addAll(chunk.angles);
+        }
+        int[] spikeAngles = new int[angles.size()];
+        for (int i = 0; i < spikeAngles.length; i++) {
+            spikeAngles[i] = angles.get(i);
+        }
+
+        // Start pipe around the spawn point above the first ledge
+        double[] spawn = new double[]{130, boundaryHeight(0) + 60};
+        int sx = (int) spawn[0];
+        int sy = (int) spawn[1];
+        int[][] startPipe = {new int[]{sx - 15, sy - 15, sx + 15, sy + 15}, new int[]{sx - 20, sy - 35, sx + 20, sy - 15}};
+
+        // Button, door and exit pipe on the final ledge
+        int end = screens * SCREEN_WIDTH;
+        int top = chunks[screens - 1].endHeight;
+        int buttonX = end - 280;
+        return new Level(end, SCREEN_HEIGHT,
+                obstacles.toArray(new int[0][]), spikes.toArray(new int[0][]), spikeAngles,
+                new int[]{buttonX, top, buttonX + 70, top + 20},
+                new int[]{buttonX, top, buttonX + 70, top + 10},
+                new int[]{end - 115, top, end - 100, top + 60},
+                startPipe,
+                new int[][]{new int[]{end - 80, top - 5, end - 60, top + 35}, new int[]{end - 60, top, end - 30, top + 30}},
+                spawn);
+    }
+
+    /**
+     * Generates one chunk, trying new layouts until one passes validation.
+     * Falls back to a plain staircase without pits and decoration.
+     *
+     * @param index   Index of the chunk from the left.
+     * @param screens Total number of chunks.
+     * @return The chunk.
+     */
+    private Chunk generateChunk(int index, int screens) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            SplittableRandom random = new SplittableRandom(mix(seed, index, attempt));
+            Chunk chunk = layoutChunk(index, screens, random, false);
+            if (validate(chunk)) {
+                return chunk;
+            }
+        }
+        Chunk plain = layoutChunk(index, screens, new SplittableRandom(mix(seed, index, MAX_ATTEMPTS)), true);
+        if (!validate(plain)) {
+            throw new IllegalStateException("chunk " + index + " cannot be completed");
+        }
+        return plain;
+    }
+
+    /**
+     * Lays out the ledges, pits and decoration of a chunk.
+     *
+     * @param index   Index of the chunk from the left.
+     * @param screens Total number of chunks.
+     * @param random  Random source of the layout.
+     * @param isPlain true for a chunk without pits and decoration.
+     * @return The chunk.
+     */
+    private Chunk layoutChunk(int index, int screens, SplittableRandom random, boolean isPlain) {
+        Chunk chunk = new Chunk();
+        int x0 = index * SCREEN_WIDTH;
+        boolean isFirst = index == 0;
+        boolean isLast = index == screens - 1;
+
+        // The chunk ends in a pit whose width is shared with the next chunk
+        int trailingGap = isLast ? 0 : boundaryGap(index + 1);
+        int endX = x0 + SCREEN_WIDTH - trailingGap;
+        int startHeight = boundaryHeight(index);
+        int endHeight = boundaryHeight(index + 1);
+        chunk.endHeight = endHeight;
+
+        // Ledge heights: each one must be climbable from the previous one and still reach the end height
+        int rise = (int) (maxRise * MARGIN);
+        int minCount = 1 + (MAX_LEDGE - MIN_LEDGE + rise - 1) / rise;
+        int count = Math.max(minCount, 4 + random.nextInt(3));
+        int[] heights = new int[count];
+        heights[0] = startHeight;
+        for (int i = 1; i < count; i++) {
+            int low = Math.max(MIN_LEDGE, endHeight - (count - 1 - i) * rise);
+            int high = Math.min(MAX_LEDGE, heights[i - 1] + rise);
+            heights[i] = i == count - 1 ? endHeight : roundTen(low + random.nextInt(Math.max(1, high - low + 1)));
+            heights[i] = Math.max(low, Math.min(high, heights[i]));
+        }
+
+        // Minimum ledge widths leave room for the spawn point and the door
+        int[] widths = new int[count];
+        int minTotal = 0;
+        for (int i = 0; i < count; i++) {
+            widths[i] = MIN_WIDTH;
+            if (i == 0 && isFirst) {
+                widths[i] = Math.max(widths[i], 220);
+            }
+            if (i == count - 1 && isLast) {
+                widths[i] = Math.max(widths[i], 320);
+            }
+            minTotal += widths[i];
+        }
+
+        // Gaps between ledges, 0 means a step
+        int[] gaps = new int[count];
+        int gapCap = count > 1 ? (endX - x0 - minTotal) / (count - 1) : 0;
+        int gapTotal = 0;
+        for (int i = 1; i < count; i++) {
+            int maxGap = Math.min(gapCap, (int) (reachFor(heights[i] - heights[i - 1]) * MARGIN));
+            if (!isPlain && maxGap >= MIN_GAP && random.nextInt(10) >= 3) {
+                gaps[i] = MIN_GAP + random.nextInt(maxGap - MIN_GAP + 1);
+            }
+            gapTotal += gaps[i];
+        }
+
+        // Spread the remaining width over the ledges
+        int spare = endX - x0 - minTotal - gapTotal;
+        for (int i = 0; i < count && spare > 0; i++) {
+            int extra = i == count - 1 ? spare : random.nextInt(spare / 2 + 1);
+            widths[i] += extra;
+            spare -= extra;
+        }
+
+        // Emit ledges and pits
+        int x = x0;
+        chunk.obstacles.add(new int[]{x0, 0, x0 + SCREEN_WIDTH, FLOOR}); // floor under the pits
+        chunk.obstacles.add(new int[]{x0, CEILING, x0 + SCREEN_WIDTH, SCREEN_HEIGHT});
+        if (isFirst) {
+            chunk.obstacles.add(new int[]{0, startHeight, 30, CEILING}); // wall behind the spawn point
+        }
+        for (int i = 0; i < count; i++) {
+            if (gaps[i] > 0) {
+                addSpike(chunk, new int[]{x, FLOOR, x + gaps[i], FLOOR + PIT_DEPTH}, 0);
+                chunk.transitions.add(new int[]{gaps[i], heights[i] - heights[i - 1]});
+                x += gaps[i];
+            } else if (i > 0) {
+                chunk.transitions.add(new int[]{0, heights[i] - heights[i - 1]});
+            }
+            int[] ledge = new int[]{x, FLOOR, x + widths[i], heights[i]};
+            chunk.obstacles.add(ledge);
+            chunk.ledges.add(ledge);
+            x += widths[i];
+        }
+        if (trailingGap > 0) {
+            addSpike(chunk, new int[]{endX, FLOOR, x0 + SCREEN_WIDTH, FLOOR + PIT_DEPTH}, 0);
+            chunk.transitions.add(new int[]{trailingGap, 0});
+        }
+        if (isLast) {
+            chunk.obstacles.add(new int[]{x0 + SCREEN_WIDTH - 30, endHeight, x0 + SCREEN_WIDTH, CEILING}); // wall behind the exit
+        }
+
+        if (isPlain) {
+            return chunk;
+        }
+
+        // Decoration above the jump corridors: floating blocks, some with spikes, and ceiling spikes
+        int decorations = 2 + random.nextInt(4);
+        for (int i = 0; i < decorations; i++) {
+            int width = 40 + 10 * random.nextInt(8);
+            int left = x0 + random.nextInt(SCREEN_WIDTH - width);
+            if (random.nextBoolean()) {
+                addSpike(chunk, new int[]{left, CEILING - 20, left + width, CEILING}, 180);
+                continue;
+            }
+            int bottom = corridorTop(chunk, left, left + width) + 10;
+            if (bottom + 20 > CEILING - 30) {
+                continue; // no room above this part of the path
+            }
+            int[] block = new int[]{left, bottom, left + width, bottom + 20};
+            chunk.obstacles.add(block);
+            chunk.decorations.add(block);
+            if (random.nextInt(3) == 0) {
+                addSpike(chunk, new int[]{left, bottom + 20, left + width, bottom + 35}, 0);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Checks that every jump of the chunk is possible in every stage and that no
+     * hazard or extra obstacle is inside a jump corridor.
+     *
+     * @param chunk The chunk to check.
+     * @return true if the chunk can be completed.
+     */
+    private boolean validate(Chunk chunk) {
+        for (int[] transition : chunk.transitions) {
+            int gap = transition[0];
+            int dh = transition[1];
+            if (dh > maxRise) {
+                return false;
+            }
+            if (gap > 0 && gap > reachFor(dh)) {
+                return false;
+            }
+        }
+        for (int[] spike : chunk.spikes) {
+            if (spike[3] > FLOOR + PIT_DEPTH && spike[1] < corridorTop(chunk, spike[0], spike[2])) {
+                return false;
+            }
+        }
+        for (int[] block : chunk.decorations) {
+            if (block[1] < corridorTop(chunk, block[0], block[2])) {
+                return false;
+            }
+        }
+        int[] lastLedge = chunk.ledges.get(chunk.ledges.size() - 1);
+        return lastLedge[3] == chunk.endHeight;
+    }
+
+    /**
+     * Highest point the player can reach above the given horizontal range,
+     * taking every ledge within jumping distance into account.
+     *
+     * @param chunk The chunk.
+     * @param left  Left edge of the range.
+     * @param right Right edge of the range.
+     * @return y of the top of the jump corridor.
+     */
+    private int corridorTop(Chunk chunk, int left, int right) {
+        double top = 0;
+        for (int[] ledge : chunk.ledges) {
+            if (ledge[2] + maxReach > left && ledge[0] - maxReach < right) {
+                top = Math.max(top, ledge[3] + maxApex + PLAYER_SIZE);
+            }
+        }
+        return (int) Math.ceil(top);
+    }
+
+    /**
+     * @param chunk The chunk.
+     * @param spike Spike rectangle.
+     * @param angle Direction of the spike picture.
+     */
+    private static void addSpike(Chunk chunk, int[] spike, int angle) {
+        chunk.spikes.add(spike);
+        chunk.angles.add(angle);
+    }
+
+    /**
+     * @param dh Height change of a jump.
+     * @return Horizontal distance every stage can jump with that height change.
+     */
+    private double reachFor(int dh) {
+        return reach[Math.max(-MAX_LEDGE, Math.min(MAX_LEDGE, dh)) + MAX_LEDGE];
+    }
+
+    /**
+     * Simulates a jump frame by frame the way Player does it.
+     *
+     * @param mechanics Physics of the stage.
+     * @param dh        Height of the landing ledge relative to the jump start.
+     * @return Horizontal distance covered before falling below the landing height, 0 if it is never reached.
+     */
+    private static double jumpDistance(Mechanics mechanics, int dh) {
+        double y = 0;
+        double velocity = mechanics.getVelocityY();
+        int frames = 0;
+        boolean reached = dh <= 0;
+        while (frames < 1000) {
+            velocity += mechanics.getGravity();
+            y += velocity;
+            if (y >= dh) {
+                reached = true;
+            } else if (velocity < 0) {
+                break;
+            }
+            frames++;
+        }
+        return reached ? frames * mechanics.getVelocityX() : 0;
+    }
+
+    /**
+     * @param index Index of the boundary between two chunks (0 is the left end).
+     * @return Height of the ledges on both sides of the boundary.
+     */
+    private int boundaryHeight(int index) {
+        long hash = mix(seed, index, -1);
+        return roundTen(MIN_LEDGE + (int) Math.floorMod(hash, (long) (MAX_LEDGE - MIN_LEDGE + 1)));
+    }
+
+    /**
+     * @param index Index of the boundary between two chunks.
+     * @return Width of the pit on the left of the boundary.
+     */
+    private int boundaryGap(int index) {
+        long hash = mix(seed, index, -2);
+        int maxGap = Math.max(MIN_GAP, (int) (reachFor(0) * MARGIN));
+        return MIN_GAP + (int) Math.floorMod(hash, (long) (maxGap - MIN_GAP + 1));
+    }
+
+    /**
+     * @param value A height.
+     * @return value rounded down to a multiple of ten.
+     */
+    private static int roundTen(int value) {
+        return value - Math.floorMod(value, 10);
+    }
+
+    /**
+     * Mixes the seed with two numbers into a well spread 64 bit value (SplitMix64 finalizer).
+     *
+     * @param seed Level seed.
+     * @param a    First number.
+     * @param b    Second number.
+     * @return The mixed value.
+     */
+    private static long mix(long seed, long a, long b) {
+        long z = seed + a * 0x9E3779B97F4A7C15L + b * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+
+    /**
+     * Geometry of one generated chunk before it is joined into the level.
+     */
+    private static class Chunk {
+        private List<int[]> obstacles = new ArrayList<int[]>();
+        private List<int[]> spikes = new ArrayList<int[]>();
+        private List<Integer> angles = new ArrayList<Integer>();
+        private List<int[]> ledges = new ArrayList<int[]>();
+        private List<int[]> decorations = new ArrayList<int[]>(); // floating blocks that must stay out of the jumps
+        private List<int[]> transitions = new ArrayList<int[]>(); // {gap, height change} of every jump
+        private int endHeight;
+    }
+
+}
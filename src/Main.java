@@ -1,4 +1,6 @@
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 
 /**
@@ -11,9 +13,103 @@ public class Main {
 
     /**
      * Initializes all stages and starts the game by calling the game object's method.
-     * @param args command-line arguments (not used)
+     * @param args command-line options: "-screens N" plays a generated level of N screens,
+     *             "-seed S" picks its seed (random by default),
+     *             "-bitmap C" uses a collision bitmap with C pixel cells instead of the rectangle lists,
+     *             "-players N" lets N people play with their own key sets, "-bots M" adds M computer players,
+     *             "-fps F" sets how often frames are drawn (50 by default, 0 for uncapped; the game always steps at 50 Hz),
+     *             "-substeps N" splits the falling and collisions of every frame into N steps (1 by default),
+     *             "-renderer R" picks the drawing backend: stddraw (default), java2d or none,
+     *             "-record FILE" records the run, "-replay FILE" plays a recorded run back,
+     *             "-log FILE" writes the gameplay events to a file, "-log -" to the console (not logged by default)
+     * @throws IOException if a replay or log file cannot be written or read.
      */
-    public static void main(String[] args){
+    public static void main(String[] args) throws IOException {
+
+        long startTime = System.nanoTime();
+        if (option(args, "-renderer", "stddraw").equals("stddraw")) {
+            StdDrawRenderer.preload(StdDrawRenderer.SPRITE_FILES); // decodes the sprites while the window opens
+        }
+
+        ArrayList<Stage> stages = createStages();
+
+        // A replay brings the options of the recorded game with it
+        String options = gameOptions(args);
+        Replay replay = null;
+        if (option(args, "-replay", null) != null) {
+            replay = Replay.open(option(args, "-replay", null));
+            options = replay.getOptions();
+        } else if (option(args, "-record", null) != null) {
+            replay = Replay.record(option(args, "-record", null), options, Replay.watchedKeys(stages));
+        }
+
+        // Start the game
+        Game game = createGame(options.split(" "), stages);
+        game.setStartTime(startTime);
+        game.setRenderer(createRenderer(option(args, "-renderer", "stddraw")));
+        if (replay != null) {
+            game.setReplay(replay);
+        }
+
+        // Write the gameplay events on their own thread, only if asked to
+        String logPath = option(args, "-log", null);
+        if (logPath != null) {
+            RunLog log = new RunLog(game.getEvents(), logPath.equals("-") ? System.out : new PrintStream(logPath), 100);
+            log.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(log::stop));
+        }
+
+        game.play();
+
+    }
+
+    /**
+     * Picks the options that decide how the game plays, with every default filled in,
+     * so that a recorded run can be rebuilt from them.
+     *
+     * @param args The command-line arguments.
+     * @return The options as one line, e.g. "-screens 0 -seed 42 -bitmap 0 -players 1 -bots 0 -fps 50 -substeps 1".
+     */
+    public static String gameOptions(String[] args){
+        return "-screens " + option(args, "-screens", "0")
+                + " -seed " + option(args, "-seed", String.valueOf(System.nanoTime()))
+                + " -bitmap " + option(args, "-bitmap", "0")
+                + " -players " + option(args, "-players", "1")
+                + " -bots " + option(args, "-bots", "0")
+                + " -fps " + option(args, "-fps", "50")
+                + " -substeps " + option(args, "-substeps", "1");
+    }
+
+    /**
+     * Builds the level and the game described by the game options.
+     *
+     * @param options Options as returned by gameOptions(), split into words.
+     * @param stages The stages of the game.
+     * @return The game, without a renderer chosen.
+     */
+    public static Game createGame(String[] options, ArrayList<Stage> stages){
+        // Pick the level (the original one unless a generated one is asked for)
+        Level level = Level.DEFAULT;
+        int screens = Integer.parseInt(option(options, "-screens", "0"));
+        if (screens > 0) {
+            long seed = Long.parseLong(option(options, "-seed", "0"));
+            level = new LevelGenerator(seed, stages).generate(screens);
+        }
+        level = level.withBitmapCellSize(Integer.parseInt(option(options, "-bitmap", "0")));
+
+        int humans = Integer.parseInt(option(options, "-players", "1"));
+        int bots = Integer.parseInt(option(options, "-bots", "0"));
+        Game game = new Game(stages, level, humans, bots);
+        game.setFrameRate(Integer.parseInt(option(options, "-fps", "50")));
+        game.setSubsteps(Integer.parseInt(option(options, "-substeps", "1")));
+        return game;
+    }
+
+    /**
+     * Creates the stages of the game in playing order.
+     * @return The list of stages.
+     */
+    public static ArrayList<Stage> createStages(){
 
         int nullButton = -1; // Cancel "up button" for stage 3
 
@@ -29,6 +125,24 @@ public class Main {
         // New stage (direction buttons are FTH)
         Stage s5 = new Stage(-0.45, 3.65,10,4, KeyEvent.VK_H,     KeyEvent.VK_F,    KeyEvent.VK_T,  "Center keyboarder",         "Use F T H buttons to move");
 
+        // Special rules (stage 2 swaps its keys through the key codes above)
+        s2.addRule(StageRule.reversedFacing());
+        s3.addRule(StageRule.autoJump());
+        s3.addRule(StageRule.verticalCollisions());
+        s4.addRule(StageRule.buttonPresses(5));
+
+        // Key sets of the second and third players (WASD style and IJKL style)
+        s1.addKeyCodes(KeyEvent.VK_D, KeyEvent.VK_A, KeyEvent.VK_W);
+        s1.addKeyCodes(KeyEvent.VK_L, KeyEvent.VK_J, KeyEvent.VK_I);
+        s2.addKeyCodes(KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_W);
+        s2.addKeyCodes(KeyEvent.VK_J, KeyEvent.VK_L, KeyEvent.VK_I);
+        s3.addKeyCodes(KeyEvent.VK_D, KeyEvent.VK_A, nullButton);
+        s3.addKeyCodes(KeyEvent.VK_L, KeyEvent.VK_J, nullButton);
+        s4.addKeyCodes(KeyEvent.VK_D, KeyEvent.VK_A, KeyEvent.VK_W);
+        s4.addKeyCodes(KeyEvent.VK_L, KeyEvent.VK_J, KeyEvent.VK_I);
+        s5.addKeyCodes(KeyEvent.VK_D, KeyEvent.VK_A, KeyEvent.VK_W);
+        s5.addKeyCodes(KeyEvent.VK_L, KeyEvent.VK_J, KeyEvent.VK_I);
+
         // Add the stages to the arraylist
         ArrayList<Stage> stages = new ArrayList<Stage>();
         stages.add(s1);
@@ -37,9 +151,40 @@ public class Main {
         stages.add(s4);
         stages.add(s5);
 
-        // Start the game
-        Game game = new Game(stages);
-        game.play();
+        return stages;
+    }
+
+    /**
+     * @param name Name of a drawing backend: "stddraw", "java2d" or "none".
+     * @return A new renderer of that backend.
+     */
+    public static Renderer createRenderer(String name){
+        switch (name) {
+            case "stddraw":
+                return new StdDrawRenderer();
+            case "java2d":
+                return new BufferStrategyRenderer();
+            case "none":
+                return new NullRenderer();
+            default:
+                throw new IllegalArgumentException("unknown renderer: " + name);
+        }
+    }
 
+    /**
+     * Finds the value of a command-line option.
+     *
+     * @param args The command-line arguments.
+     * @param name Name of the option, e.g. "-seed".
+     * @param defaultValue Value used when the option is not given.
+     * @return The value following the option name, or defaultValue.
+     */
+    public static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
     }
 }
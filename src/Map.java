@@ -1,4 +1,5 @@
 import java.awt.Color;
+import java.util.Arrays;
 
 /**
  * Represents the game map for a single stage, including obstacles, spikes,
@@ -10,77 +11,124 @@ public class Map {
 
     // DATA FIELDS of the class
     private Stage stage;
-    private Player player;
-    private Game game;
+    private Mechanics mechanics; // the rules of the stage, resolved when the map is created
+    private Player[] players;
+    private int humanCount; // players before this index are humans, the rest are bots
+    private double[] playerBounds = new double[4]; // box around all players
+    private Game game; // null when the map is played without a game, e.g. by VecEnv
+    private int deathCount = 0; // restarts of this map
+    private Level level;
+    private int substeps = 1; // gravity and collision steps per frame
 
     // Obstacles List (formant is int[] = {xLeftDown , yLeftDown, xRightUp, yRightUp}
-    private int[][] obstacles = {
-            new int[]{0,   120, 120, 270}, new int[]{0,   270, 168, 330},
-            new int[]{0,   330, 30,  480}, new int[]{0,   480, 180, 600},
-            new int[]{180, 570, 680, 600}, new int[]{270, 540, 300, 570},
-            new int[]{590, 540, 620, 570}, new int[]{680, 510, 800, 600},
-            new int[]{710, 450, 800, 510}, new int[]{740, 420, 800, 450},
-            new int[]{770, 300, 800, 420}, new int[]{680, 240, 800, 300},
-            new int[]{680, 300, 710, 330}, new int[]{770, 180, 800, 240},
-            new int[]{0,   120, 800, 150}, new int[]{560, 150, 800, 180},
-            new int[]{530, 180, 590, 210}, new int[]{530, 210, 560, 240},
-            new int[]{320, 150, 440, 210}, new int[]{350, 210, 440, 270},
-            new int[]{220, 270, 310, 300}, new int[]{360, 360, 480, 390},
-            new int[]{530, 310, 590, 340}, new int[]{560, 400, 620, 430}};
+    private int[][] obstacles;
 
     // Button Coordinates and some related fields
-    private int[] button = new int[]{400, 390, 470, 410};
-    private int[] originalButton = new int[4]; // Store original button positions
+    private int[] button = new int[4];
+    private int[] originalButton; // Store original button positions
     private int buttonPressNum = 0;
     private boolean isButtonPressing = false;
     private boolean wasOffButton = true;
 
     // Button Floor Coordinates
-    private int[] buttonFloor = new int[]{400, 390, 470, 400};
+    private int[] buttonFloor;
 
     // Start Pipe Coordinates for Drawing
-    private int[][] startPipe = {
-            new int[]{115, 450, 145, 480},
-            new int[]{110, 430, 150, 450}};
+    private int[][] startPipe;
 
     // Exit Pipe Coordinates for Drawing
-    private int[][] exitPipe = {
-            new int[]{720, 175, 740, 215},
-            new int[]{740, 180, 770, 210}};
+    private int[][] exitPipe;
 
-    // Coordinates of spike areas
-    private int[][] spikes = {
-            new int[]{30, 333,  50,  423}, new int[]{121, 150, 207, 170},
-            new int[]{441, 150, 557, 170}, new int[]{591, 180, 621, 200},
-            new int[]{750, 301, 769, 419}, new int[]{680, 490, 710, 510},
-            new int[]{401, 550, 521, 570}};
+    // Coordinates of spike areas and their picture directions
+    private int[][] spikes;
+    private int[] spikeAngles;
 
     // Door Coordinates and some related fields
-    private int[] door = new int[]{685, 180, 700, 240};
-    private int[] originalDoor = new int[4]; // Store original door positions
+    private int[] door = new int[4];
+    private int[] originalDoor; // Store original door positions
     private boolean isDoorOpen = false;
     private boolean isDoorOpening = false;
+    private Runnable doorOpened = () -> { // created once, so opening allocates nothing
+        isDoorOpening = false;
+        isDoorOpen = true;
+    };
+
+    // Door and button animations over the game time
+    private Tweens tweens = new Tweens();
+    private static final long DOOR_NANOS_PER_PIXEL = 1_000_000_000L / 150; // 3 pixels per frame at 50 Hz
+    private static final long BUTTON_NANOS = 80_000_000L;
 
     // Timer Area (Blue Area at the Bottom)
     private int[] timerArea = new int[]{0, 0, 800, 120};
 
+    // Spatial indexes used for culling and collisions, shared by every map of the level
+    private SpatialGrid obstacleGrid;
+    private SpatialGrid spikeGrid;
+    private int[] visible; // query buffer for the grids
+    private int[] candidates; // query buffer for collision candidates
+    private CollisionBitmap bitmap; // null when collisions loop over the rectangle lists
+    private boolean useBroadphase; // look up collision candidates in the grids instead of the full lists
+
 
     /**
-     * Constructs a map with the given stage and player reference.
+     * Constructs a map of the default level with the given stage and player reference.
      *
      * @param stage The current stage configuration.
      * @param player The player object.
      * @param game The game object.
      */
     public Map(Stage stage, Player player, Game game){
+        this(stage, player, game, Level.DEFAULT);
+    }
+
+    /**
+     * Constructs a map of the given level with the given stage and player reference.
+     *
+     * @param stage The current stage configuration.
+     * @param player The player object.
+     * @param game The game object.
+     * @param level The level geometry.
+     */
+    public Map(Stage stage, Player player, Game game, Level level){
+        this(stage, new Player[]{player}, 1, game, level);
+    }
+
+    /**
+     * Constructs a map of the given level shared by several players.
+     *
+     * @param stage The current stage configuration.
+     * @param players The player objects, humans first.
+     * @param humanCount Number of human players at the start of the array, the rest are bots.
+     * @param game The game object, or null to play without one (no events, deaths only counted by the map).
+     * @param level The level geometry.
+     */
+    public Map(Stage stage, Player[] players, int humanCount, Game game, Level level){
         this.stage = stage;
-        this.player = player;
+        this.mechanics = stage.resolveMechanics();
+        this.players = players;
+        this.humanCount = humanCount;
         this.game = game;
-        // Store original button and door positions
+        this.level = level;
+        this.obstacles = level.getObstacles();
+        this.spikes = level.getSpikes();
+        this.spikeAngles = level.getSpikeAngles();
+        this.buttonFloor = level.getButtonFloor();
+        this.startPipe = level.getStartPipe();
+        this.exitPipe = level.getExitPipe();
+        // Store original button and door positions, the moving copies belong to this map
+        this.originalButton = level.getButton();
+        this.originalDoor = level.getDoor();
         for (int i = 0; i < 4; i++) {
-            originalButton[i] = button[i];
-            originalDoor[i] = door[i];
+            button[i] = originalButton[i];
+            door[i] = originalDoor[i];
         }
+        obstacleGrid = level.getObstacleGrid();
+        spikeGrid = level.getSpikeGrid();
+        visible = new int[Math.max(obstacles.length, spikes.length)];
+        candidates = new int[Math.max(obstacles.length, spikes.length)];
+        bitmap = level.getBitmap();
+        useBroadphase = bitmap != null || players.length > 1;
+        updatePlayerBounds();
     }
 
 
@@ -89,49 +137,105 @@ public class Map {
      * @return An int array defining the timer area coordinates.
      */
     public int[] getTimerArea(){return timerArea;}
+    /**
+     * @return Width of the level.
+     */
+    public int getWorldWidth(){return level.getWidth();}
+    /**
+     * @return Height of the level.
+     */
+    public int getWorldHeight(){return level.getHeight();}
+    /**
+     * @return true once the door is fully lowered and players may pass.
+     */
+    public boolean getIsDoorOpen(){return isDoorOpen;}
+    /**
+     * @return true while the door is being lowered, before it is open.
+     */
+    public boolean getIsDoorOpening(){return isDoorOpening;}
+    /**
+     * @return true while a player stands on the button.
+     */
+    public boolean getIsButtonPressing(){return isButtonPressing;}
+    /**
+     * @return Current button rectangle.
+     */
+    public int[] getButton(){return button;}
+    /**
+     * @return Rectangles of the exit pipe, the first one is the exit area.
+     */
+    public int[][] getExitPipe(){return exitPipe;}
+    /**
+     * @return Number of times this map was restarted, i.e. the deaths of its human players.
+     */
+    public int getDeathCount(){return deathCount;}
+    /**
+     * @return Gravity and collision steps per frame.
+     */
+    public int getSubsteps(){return substeps;}
+
+    // SETTER METHODS
+    /**
+     * Splits the gravity and collision pass of every frame into smaller steps, which keeps fast
+     * falling players from sinking deep into obstacles before they are pushed out.
+     * @param substeps Steps per frame, at least 1; 5 integrates at 250 Hz while the game runs at 50 Hz.
+     */
+    public void setSubsteps(int substeps) {
+        if (substeps < 1) {
+            throw new IllegalArgumentException("a frame needs at least one physics step: " + substeps);
+        }
+        this.substeps = substeps;
+    }
 
 
     // OTHER METHODS
 
     /**
-     * Moves the player in the given direction using standard controls.
+     * Moves a player according to the pressed keys of its key set.
+     * Keys are given in key set order (the stage's right, left and up keys).
+     *
+     * @param index Index of the player.
+     * @param right Whether the right key of the player is pressed.
+     * @param left Whether the left key of the player is pressed.
+     * @param up Whether the up key of the player is pressed.
+     */
+    public void applyInput(int index, boolean right, boolean left, boolean up){
+        if (right) {
+            movePlayer(index, 'R');
+            mechanics.keyMoved(players[index], 'R');
+        }
+        if (left) {
+            movePlayer(index, 'L');
+            mechanics.keyMoved(players[index], 'L');
+        }
+        if (up) {
+            movePlayer(index, 'U');
+            mechanics.keyMoved(players[index], 'U');
+        }
+    }
+
+    /**
+     * Moves a player in the given direction by the mechanics of the stage.
      *
+     * @param index Index of the player.
      * @param direction Direction to move ('L', 'R', 'U')
      */
-    public void movePlayer(char direction){
+    public void movePlayer(int index, char direction){
+        Player player = players[index];
 
         if (direction == 'L') { // calls move left
             player.setIsFacingRight(false);
-            player.moveLeft(stage.getVelocityX());
+            player.moveLeft(mechanics.getVelocityX());
         } else if (direction == 'R') { // calls move right
             player.setIsFacingRight(true);
-            player.moveRight(stage.getVelocityX());
+            player.moveRight(mechanics.getVelocityX());
         } else if (direction == 'U') { // calls jump
-            player.jump(stage.getVelocityY());
+            player.jump(mechanics.getVelocityY());
         }
 
-        // Bounce when on ground at stage 3
-        if (stage.getStageNumber() == 2 && player.getIsOnGround()) {
-            player.jump(stage.getVelocityY());
-        }
-
-    }
-    /**
-     * Overloaded movement method to support reversed control schemes.
-     *
-     * @param direction Direction to move.
-     * @param isReversedKeys Just a trigger to choose reverse logic.
-     */
-    public void movePlayer(char direction, int isReversedKeys){
-
-        if (direction == 'L') {
-            player.setIsFacingRight(true);
-            player.moveLeft(stage.getVelocityX());
-        } else if (direction == 'R') {
-            player.setIsFacingRight(false);
-            player.moveRight(stage.getVelocityX());
-        } else if (direction == 'U') {
-            player.jump(stage.getVelocityY());
+        // Rules of the stage for players on the ground, e.g. bouncing
+        if (player.getIsOnGround()) {
+            mechanics.onGround(player);
         }
 
     }
@@ -157,44 +261,102 @@ public class Map {
     }
 
     /**
-     * Handles all collisions including gravity, obstacles, spikes, buttons, and doors.
+     * Checks whether a player stands right on top of an obstacle.
+     * The bitmap answers most cases at once; its cells can be larger than a pixel,
+     * so a hit is confirmed by the obstacle rectangles near the feet.
+     *
+     * @param player The player.
+     * @return true if the top of an obstacle is right under the player's feet.
      */
-    public void handleCollisions() {
-        // Apply gravity if player is jumping
-        if (player.getIsJumping()) {
-            player.applyGravity(stage.getGravity());
+    private boolean isGroundBelow(Player player) {
+        double left = player.getX() - player.getWidth() / 2;
+        double right = player.getX() + player.getWidth() / 2;
+        double bottom = player.getY() - player.getHeight() / 2;
+        if (bitmap != null && !bitmap.isGroundBelow(left, bottom, right)) {
+            return false;
         }
-
-        // Check for spike collisions
-        checkSpikeCollision();
-
-        // Check for obstacle collisions (was or is it on the ground)
-        boolean wasOnGround = player.getIsOnGround();
-        boolean isOnGround = checkObstacleCollision();
-
-        // Check door collision
-        if (!isDoorOpen) {
-            checkDoorCollision();
+        int count = obstacleGrid.query(left, bottom - 1, right, bottom, candidates);
+        for (int i = 0; i < count; i++) {
+            int[] obstacle = obstacles[candidates[i]];
+            if (obstacle[3] == bottom && right > obstacle[0] && left < obstacle[2]) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        // Stop jumping
-        if (isOnGround && !wasOnGround) {
-            player.setIsJumping(false);
-
-            // auto jump for stage 3
-            if (stage.getStageNumber() == 2) {
-                player.jump(stage.getVelocityY());
+    /**
+     * Checks whether a point is inside an obstacle.
+     *
+     * @param x x coordinate of the point.
+     * @param y y coordinate of the point.
+     * @return true if an obstacle contains the point.
+     */
+    public boolean isSolid(double x, double y) {
+        int count = obstacleGrid.query(x - 1, y - 1, x + 1, y + 1, candidates);
+        for (int i = 0; i < count; i++) {
+            int[] obstacle = obstacles[candidates[i]];
+            if (x >= obstacle[0] && x < obstacle[2] && y >= obstacle[1] && y < obstacle[3]) {
+                return true;
             }
-
         }
+        return false;
+    }
 
-        // Start jumping
-        if (!isOnGround && wasOnGround && !player.getIsJumping()) {
-            player.setIsJumping(true);
+    /**
+     * Measures how far a player can move in one direction before touching a spike.
+     *
+     * @param index Index of the player.
+     * @param dx x of the direction: -1, 0 or 1.
+     * @param dy y of the direction: -1, 0 or 1 (only one of dx and dy is not 0).
+     * @param range Largest distance looked at.
+     * @return Distance to the nearest spike in that direction, range if none is closer.
+     */
+    public double hazardDistance(int index, int dx, int dy, double range) {
+        Player player = players[index];
+        double left   = player.getX() - player.getWidth()  / 2;
+        double right  = player.getX() + player.getWidth()  / 2;
+        double bottom = player.getY() - player.getHeight() / 2;
+        double top    = player.getY() + player.getHeight() / 2;
+
+        // Spikes in the box swept by the player over the range
+        int count = spikeGrid.query(dx < 0 ? left - range : left, dy < 0 ? bottom - range : bottom,
+                dx > 0 ? right + range : right, dy > 0 ? top + range : top, candidates);
+        double nearest = range;
+        for (int i = 0; i < count; i++) {
+            int[] spike = spikes[candidates[i]];
+            boolean isBehind;
+            double distance;
+            if (dx != 0) {
+                if (spike[3] <= bottom || spike[1] >= top) {
+                    continue; // not in the player's row
+                }
+                isBehind = dx > 0 ? spike[2] <= left : spike[0] >= right;
+                distance = dx > 0 ? spike[0] - right : left - spike[2];
+            } else {
+                if (spike[2] <= left || spike[0] >= right) {
+                    continue; // not in the player's column
+                }
+                isBehind = dy > 0 ? spike[3] <= bottom : spike[1] >= top;
+                distance = dy > 0 ? spike[1] - top : bottom - spike[3];
+            }
+            if (!isBehind) {
+                nearest = Math.min(nearest, Math.max(0, distance)); // 0 when already touching
+            }
         }
+        return nearest;
+    }
 
-        // Update player's ground state
-        player.setIsOnGround(isOnGround);
+    /**
+     * Handles all collisions including gravity, obstacles, spikes, buttons, and doors
+     * for every player in one pass. The door and button are shared, so they are
+     * checked once against all players after everyone has moved.
+     */
+    public void handleCollisions() {
+        for (int i = 0; i < players.length; i++) {
+            handleCollisions(i);
+        }
+        updatePlayerBounds();
 
         // Check button interaction
         boolean wasPressing = isButtonPressing;
@@ -208,30 +370,137 @@ public class Map {
 
     }
 
+    /**
+     * Handles gravity, spike, obstacle and door collisions of one player.
+     *
+     * @param index Index of the player.
+     */
+    private void handleCollisions(int index) {
+        Player player = players[index];
+
+        // Horizontal moves are at most a few pixels, so only the falling is split into steps
+        for (int step = 0; step < substeps; step++) {
+            // Apply gravity if player is jumping
+            if (player.getIsJumping()) {
+                player.applyGravity(mechanics.getGravity(), substeps);
+            }
+
+            // Check for spike collisions
+            checkSpikeCollision(index);
+
+            // Check for obstacle collisions (was or is it on the ground)
+            boolean wasOnGround = player.getIsOnGround();
+            boolean isOnGround = checkObstacleCollision(player);
+
+            // Check door collision
+            if (!isDoorOpen) {
+                checkDoorCollision(player);
+            }
+
+            // Stop jumping
+            if (isOnGround && !wasOnGround) {
+                player.setIsJumping(false);
+
+                // rules of the stage for landing players, e.g. bouncing straight back up
+                mechanics.onGround(player);
+            }
+
+            // Start jumping, unless the player still stands on the surface it landed on
+            if (!isOnGround && wasOnGround && !player.getIsJumping()) {
+                if (isGroundBelow(player)) {
+                    isOnGround = true;
+                } else {
+                    player.setIsJumping(true);
+                }
+            }
+
+            // Update player's ground state
+            player.setIsOnGround(isOnGround);
+        }
+    }
+
+    /**
+     * Updates the box around all players, used to skip the shared checks nobody is near.
+     */
+    private void updatePlayerBounds() {
+        playerBounds[0] = Double.MAX_VALUE;
+        playerBounds[1] = Double.MAX_VALUE;
+        playerBounds[2] = -Double.MAX_VALUE;
+        playerBounds[3] = -Double.MAX_VALUE;
+        for (Player player : players) {
+            playerBounds[0] = Math.min(playerBounds[0], player.getX() - player.getWidth() / 2);
+            playerBounds[1] = Math.min(playerBounds[1], player.getY() - player.getHeight() / 2);
+            playerBounds[2] = Math.max(playerBounds[2], player.getX() + player.getWidth() / 2);
+            playerBounds[3] = Math.max(playerBounds[3], player.getY() + player.getHeight() / 2);
+        }
+    }
+
+    /**
+     * @param rect Rectangle to check.
+     * @return true if the rectangle overlaps the box around all players.
+     */
+    private boolean isNearPlayers(int[] rect) {
+        return playerBounds[2] > rect[0] && playerBounds[0] < rect[2] && playerBounds[3] > rect[1] && playerBounds[1] < rect[3];
+    }
+
     /**
      * Resets the button to its original height.
      */
     private void resetButtonPosition() {
-        button[1] = originalButton[1];
-        button[3] = originalButton[3];
+        tweens.start(button, 1, originalButton[1], BUTTON_NANOS, Tweens.Easing.EASE_OUT, null);
+        tweens.start(button, 3, originalButton[3], BUTTON_NANOS, Tweens.Easing.EASE_OUT, null);
     }
 
     /**
-     * Checks if the player touches any spikes and restarts if so.
+     * Checks if a player touches any spikes and kills it if so.
+     *
+     * @param index Index of the player.
      */
-    private void checkSpikeCollision() {
+    private void checkSpikeCollision(int index) {
+        Player player = players[index];
+        // Cells can be larger than a pixel, so a bitmap hit is only confirmed by the spike rectangles below
+        if (bitmap != null && !bitmap.touchesHazard(player.getX() - player.getWidth() / 2, player.getY() - player.getHeight() / 2,
+                                                    player.getX() + player.getWidth() / 2, player.getY() + player.getHeight() / 2)) {
+            return;
+        }
+        if (useBroadphase) {
+            int count = spikeGrid.query(player.getX() - player.getWidth() / 2, player.getY() - player.getHeight() / 2,
+                                        player.getX() + player.getWidth() / 2, player.getY() + player.getHeight() / 2, candidates);
+            for (int i = 0; i < count; i++) {
+                if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), spikes[candidates[i]])) {
+                    killPlayer(index);
+                    break;
+                }
+            }
+            return;
+        }
         for (int[] spike : spikes) {
             if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), spike)) {
-                restartStage();
+                killPlayer(index);
                 break;
             }
         }
     }
 
     /**
-     * Prevents player from passing through a closed door.
+     * A human player's death restarts the stage for everyone, a bot only respawns itself.
+     *
+     * @param index Index of the player.
+     */
+    private void killPlayer(int index) {
+        if (index < humanCount) {
+            restartStage();
+        } else {
+            players[index].respawn(level.getSpawnPoint());
+        }
+    }
+
+    /**
+     * Prevents a player from passing through a closed door.
+     *
+     * @param player The player.
      */
-    private void checkDoorCollision() {
+    private void checkDoorCollision(Player player) {
         if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), door)) {
             double doorLeft = door[0];
 
@@ -243,72 +512,114 @@ public class Map {
 
     /**
      * Checks and handles player collision with all obstacles.
+     * With several players or a collision bitmap, only the obstacles near the player are
+     * resolved, in the same order as the full list. The bitmap also answers the common
+     * case of touching nothing without looking at any obstacle.
      *
+     * @param player The player.
      * @return true if player is on the ground after calculation.
      */
-    private boolean checkObstacleCollision() {
+    private boolean checkObstacleCollision(Player player) {
         boolean isOnGround = false;
 
-        for (int[] obstacle : obstacles) {
-            if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), obstacle)) {
-                double playerLeft = player.getX() - player.getWidth() / 2;
-                double playerRight = player.getX() + player.getWidth() / 2;
-                double playerTop = player.getY() + player.getHeight() / 2;
-                double playerBottom = player.getY() - player.getHeight() / 2;
-
-                double obstacleLeft = obstacle[0];
-                double obstacleRight = obstacle[2];
-                double obstacleTop = obstacle[3];
-                double obstacleBottom = obstacle[1];
-
-                // Calculate penetration depths to find which side is the true collision
-                double leftPenetration = playerRight - obstacleLeft;
-                double rightPenetration = obstacleRight - playerLeft;
-                double topPenetration = obstacleTop - playerBottom;
-                double bottomPenetration = playerTop - obstacleBottom;
-
-                // Find minimum penetration
-                double minPenetration = Math.min( Math.min(leftPenetration, rightPenetration), Math.min(topPenetration, bottomPenetration) );
-
-                // Prevent wrong collision detection due to high velocityY which causes confusion
-                if( stage.getStageNumber() == 2 && leftPenetration > 5 && rightPenetration > 5) {
-                    minPenetration = Math.min(bottomPenetration, topPenetration);
-                }
+        if (!useBroadphase) {
+            for (int[] obstacle : obstacles) {
+                isOnGround |= resolveObstacleCollision(player, obstacle);
+            }
+            return isOnGround;
+        }
 
-                // Assign based on minimum penetration
-                if (minPenetration == leftPenetration) {
-                    // collision from the left
-                    player.setX(obstacleLeft - player.getWidth() / 2);
-                    player.setVelocityX(0);
-                } else if (minPenetration == rightPenetration) {
-                    // collision from the right
-                    player.setX(obstacleRight + player.getWidth() / 2);
-                    player.setVelocityX(0);
-                } else if (minPenetration == topPenetration) {
-                    // collision from the top (player is below obstacle)
-                    player.setY(obstacleTop + player.getHeight() / 2);
-                    player.setVelocityY(0);
-                    isOnGround = true;
-                    player.setIsJumping(false);
-                } else if (minPenetration == bottomPenetration) {
-                    // collision from the bottom (player is above obstacle)
-                    player.setY(obstacleBottom - player.getHeight() / 2);
+        double halfWidth = player.getWidth() / 2;
+        double halfHeight = player.getHeight() / 2;
+        if (bitmap != null && !bitmap.touchesSolid(player.getX() - halfWidth, player.getY() - halfHeight,
+                                                   player.getX() + halfWidth, player.getY() + halfHeight)) {
+            return false;
+        }
+        // Resolving one obstacle moves the player by less than its size, so a query one size wider covers the rest
+        int count = obstacleGrid.query(player.getX() - 3 * halfWidth, player.getY() - 3 * halfHeight,
+                                       player.getX() + 3 * halfWidth, player.getY() + 3 * halfHeight, candidates);
+        Arrays.sort(candidates, 0, count);
+        for (int i = 0; i < count; i++) {
+            isOnGround |= resolveObstacleCollision(player, obstacles[candidates[i]]);
+        }
+        return isOnGround;
+    }
+
+    /**
+     * Pushes the player out of one obstacle through the side with the smallest penetration.
+     *
+     * @param player The player.
+     * @param obstacle Obstacle rectangle.
+     * @return true if the player landed on top of the obstacle.
+     */
+    private boolean resolveObstacleCollision(Player player, int[] obstacle) {
+        if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), obstacle)) {
+            double playerLeft = player.getX() - player.getWidth() / 2;
+            double playerRight = player.getX() + player.getWidth() / 2;
+            double playerTop = player.getY() + player.getHeight() / 2;
+            double playerBottom = player.getY() - player.getHeight() / 2;
+
+            double obstacleLeft = obstacle[0];
+            double obstacleRight = obstacle[2];
+            double obstacleTop = obstacle[3];
+            double obstacleBottom = obstacle[1];
+
+            // Calculate penetration depths to find which side is the true collision
+            double leftPenetration = playerRight - obstacleLeft;
+            double rightPenetration = obstacleRight - playerLeft;
+            double topPenetration = obstacleTop - playerBottom;
+            double bottomPenetration = playerTop - obstacleBottom;
+
+            // Find minimum penetration
+            double minPenetration = Math.min( Math.min(leftPenetration, rightPenetration), Math.min(topPenetration, bottomPenetration) );
+
+            // Prevent wrong collision detection due to high velocityY which causes confusion
+            if (mechanics.isVerticalOverlap(leftPenetration, rightPenetration)) {
+                minPenetration = Math.min(bottomPenetration, topPenetration);
+            }
+
+            // Assign based on minimum penetration
+            if (minPenetration == leftPenetration) {
+                // collision from the left
+                player.setX(obstacleLeft - player.getWidth() / 2);
+                player.setVelocityX(0);
+            } else if (minPenetration == rightPenetration) {
+                // collision from the right
+                player.setX(obstacleRight + player.getWidth() / 2);
+                player.setVelocityX(0);
+            } else if (minPenetration == topPenetration) {
+                // collision from the top (player is below obstacle)
+                player.setY(obstacleTop + player.getHeight() / 2);
+                player.setVelocityY(0);
+                player.setIsJumping(false);
+                return true;
+            } else if (minPenetration == bottomPenetration) {
+                // collision from the bottom (player is above obstacle)
+                player.setY(obstacleBottom - player.getHeight() / 2);
+                player.setVelocityY(0);
+                if (player.getVelocityY() > 0) {
                     player.setVelocityY(0);
-                    if (player.getVelocityY() > 0) {
-                        player.setVelocityY(0);
-                    }
                 }
             }
         }
-        return isOnGround;
+        return false;
     }
 
     /**
      * Handles logic for stepping on the button and triggering door animation.
+     * Any player can press the button, it stays pressed while at least one player is on it.
      */
     private void checkButtonCollision() {
-        // for understanding whether is player on the button
-        boolean isCurrentlyOnButton = checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), button);
+        // for understanding whether is any player on the button
+        boolean isCurrentlyOnButton = false;
+        if (isNearPlayers(button)) {
+            for (Player player : players) {
+                if (checkCollision(player.getX(), player.getY(), player.getWidth(), player.getHeight(), button)) {
+                    isCurrentlyOnButton = true;
+                    break;
+                }
+            }
+        }
 
         if (isCurrentlyOnButton) {
             if (wasOffButton) { // player arrives button
@@ -323,18 +634,25 @@ public class Map {
     }
 
     /**
-     * Checks if the player is inside the exit pipe and the door is open.
+     * Checks if any player is inside the exit pipe and the door is open.
      *
      * @return true if stage should change.
      */
     public boolean changeStage(){
-        boolean playerInExitPipe =
-                        player.getX() > exitPipe[0][0] &&
-                        player.getX() < exitPipe[0][2] &&
-                        player.getY() > exitPipe[0][1] &&
-                        player.getY() < exitPipe[0][3];
-
-        return isDoorOpen && playerInExitPipe;
+        if (!isDoorOpen || !isNearPlayers(exitPipe[0])) {
+            return false;
+        }
+        for (Player player : players) {
+            boolean playerInExitPipe =
+                            player.getX() > exitPipe[0][0] &&
+                            player.getX() < exitPipe[0][2] &&
+                            player.getY() > exitPipe[0][1] &&
+                            player.getY() < exitPipe[0][3];
+            if (playerInExitPipe) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -342,13 +660,20 @@ public class Map {
      */
     public void pressButton(){
         buttonPressNum++;
+        publish(EventType.BUTTON_PRESS, buttonPressNum);
+
+        if (buttonPressNum >= mechanics.getButtonPresses()) {
+            if (!isDoorOpen && !isDoorOpening) {
+                publish(EventType.DOOR_OPEN, 0);
+                // The door blocks players with its lowered height until it is down, then it is open
+                isDoorOpening = true;
+                tweens.start(door, 3, door[1], (door[3] - door[1]) * DOOR_NANOS_PER_PIXEL,
+                        Tweens.Easing.EASE_OUT, doorOpened);
+            }
 
-        if (stage.getStageNumber() != 3 || buttonPressNum >= 5) { // requires 5 presess for stage 4
-            isDoorOpen = true;
-            isDoorOpening = true;
-
-            button[1] = buttonFloor[1]; // set y1 (bottom) to floor level
-            button[3] = buttonFloor[3]; // set y2 (top) to floor level
+            // lower the button to floor level
+            tweens.start(button, 1, buttonFloor[1], BUTTON_NANOS, Tweens.Easing.EASE_OUT, null);
+            tweens.start(button, 3, buttonFloor[3], BUTTON_NANOS, Tweens.Easing.EASE_OUT, null);
         }
     }
 
@@ -356,95 +681,143 @@ public class Map {
      * Restarts the current stage by resetting all positions and counters.
      */
     public void restartStage(){
-        player.respawn(new double[]{130, 465});
+        for (Player player : players) {
+            player.respawn(level.getSpawnPoint());
+        }
         buttonPressNum = 0;
         isDoorOpen = false;
         isDoorOpening = false;
 
         // Reset door and button positions using original values
+        tweens.clear();
         for (int i = 0; i < 4; i++) {
             door[i] = originalDoor[i];
             button[i] = originalButton[i];
         }
 
-        game.resetHelp();
-        game.incrementDeath();
+        deathCount++;
+        if (game != null) {
+            game.resetHelp();
+            game.incrementDeath();
+        }
     }
 
     /**
-     * Animates the door opening by reducing its height.
+     * Publishes a gameplay event to the game, if the map has one.
+     *
+     * @param type  The kind of event.
+     * @param value Value of the event.
      */
-    public void updateDoor() {
-        if (!isDoorOpening || !isDoorOpen) return;
-
-        int doorSpeed = 3;
-        if (door[3] > door[1]) {
-            door[3] -= doorSpeed;
-            if (door[3] <= door[1]) {
-                isDoorOpening = false;
-            }
+    private void publish(EventType type, int value) {
+        if (game != null) {
+            game.publish(type, value);
         }
     }
 
     /**
-     * Renders the entire game map including player, pipes, spikes, door, button, and obstacles.
+     * Advances the door and button animations.
+     *
+     * @param deltaTime Nanoseconds of game time since the last frame.
      */
-    public void draw(){
+    public void updateAnimations(long deltaTime) {
+        tweens.update(deltaTime);
+    }
 
-        // player
-        player.draw();
+    /**
+     * Renders the visible part of the game map including player, pipes, spikes, door, button, and obstacles.
+     * Obstacles and spikes are looked up through the spatial grids so that only the ones
+     * inside the camera window are drawn.
+     *
+     * @param camera The camera whose window is drawn, already applied to the canvas.
+     * @param renderer The renderer to draw with.
+     */
+    public void draw(Camera camera, Renderer renderer){
+        draw(camera, renderer, 1);
+    }
+
+    /**
+     * Renders the visible part of the game map with the players placed between their
+     * positions before and after the last step.
+     *
+     * @param camera The camera whose window is drawn, already applied to the canvas.
+     * @param renderer The renderer to draw with.
+     * @param alpha Fraction of a step passed since the last step, 1 for the current positions.
+     */
+    public void draw(Camera camera, Renderer renderer, double alpha){
+
+        // players
+        for (Player player : players) {
+            double x = player.getDrawX(alpha);
+            double y = player.getDrawY(alpha);
+            if (x + player.getWidth() / 2 > camera.getLeft() && x - player.getWidth() / 2 < camera.getRight()
+                    && y + player.getHeight() / 2 > camera.getBottom() && y - player.getHeight() / 2 < camera.getTop()) {
+                player.draw(renderer, alpha);
+            }
+        }
 
         // obstacles
-        StdDraw.setPenColor(stage.getColor());
-        for (int[] obs : obstacles) {
-            StdDraw.filledRectangle((obs[0]+obs[2])/2, (obs[1]+obs[3])/2,
-                    (obs[2]-obs[0])/2, (obs[3]-obs[1])/2);
+        renderer.setPenColor(stage.getColor());
+        int count = obstacleGrid.query(camera.getLeft(), camera.getBottom(), camera.getRight(), camera.getTop(), visible);
+        for (int i = 0; i < count; i++) {
+            int[] obs = obstacles[visible[i]];
+            if (camera.isVisible(obs)) {
+                renderer.filledRectangle((obs[0]+obs[2])/2, (obs[1]+obs[3])/2,
+                        (obs[2]-obs[0])/2, (obs[3]-obs[1])/2);
+            }
         }
 
-        // spikes (according their locations)
-        for (int[] spike : spikes) {
-            if ((spike[3] + spike[1]) / 2.0 < 300.0) {
-                StdDraw.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[2]-spike[0], spike[3]-spike[1]);
-            } else if (200.0 < (spike[3] + spike[1]) / 2.0 && (spike[3] + spike[1]) / 2.0 < 400.0){
-                if ((spike[2] + spike[0]) < 400.0){
-                    StdDraw.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[3]-spike[1], spike[2]-spike[0], 270);
-                } else{
-                    StdDraw.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[3]-spike[1], spike[2]-spike[0],90);
-                }
+        // spikes (directions come from the level)
+        count = spikeGrid.query(camera.getLeft(), camera.getBottom(), camera.getRight(), camera.getTop(), visible);
+        for (int i = 0; i < count; i++) {
+            int[] spike = spikes[visible[i]];
+            if (!camera.isVisible(spike)) {
+                continue;
+            }
+            // rotated pictures swap width and height
+            if (spikeAngles[visible[i]] % 180 == 0) {
+                renderer.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[2]-spike[0], spike[3]-spike[1], spikeAngles[visible[i]]);
             } else {
-                StdDraw.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[2]-spike[0], spike[3]-spike[1], 180);
+                renderer.picture((spike[2] + spike[0]) / 2.0, (spike[3] + spike[1]) / 2.0, "misc/Spikes.png", spike[3]-spike[1], spike[2]-spike[0], spikeAngles[visible[i]]);
             }
         }
 
         // start pipe
         for (int[] pipe : startPipe) {
-            StdDraw.setPenColor(new Color(200,200,55));
-            StdDraw.filledRectangle((pipe[0] + pipe[2]) / 2.0, (pipe[1] + pipe[3]) / 2.0,
-                              (pipe[2] - pipe[0]) / 2.0, (pipe[3] - pipe[1]) / 2.0);
+            if (camera.isVisible(pipe)) {
+                renderer.setPenColor(new Color(200,200,55));
+                renderer.filledRectangle((pipe[0] + pipe[2]) / 2.0, (pipe[1] + pipe[3]) / 2.0,
+                                  (pipe[2] - pipe[0]) / 2.0, (pipe[3] - pipe[1]) / 2.0);
+            }
         }
 
         // exit pipe
         for (int[] pipe : exitPipe) {
-            StdDraw.setPenColor(new Color(200,200,55));
-            StdDraw.filledRectangle((pipe[0] + pipe[2]) / 2.0, (pipe[1] + pipe[3]) / 2.0,
-                    (pipe[2] - pipe[0]) / 2.0, (pipe[3] - pipe[1]) / 2.0);
+            if (camera.isVisible(pipe)) {
+                renderer.setPenColor(new Color(200,200,55));
+                renderer.filledRectangle((pipe[0] + pipe[2]) / 2.0, (pipe[1] + pipe[3]) / 2.0,
+                        (pipe[2] - pipe[0]) / 2.0, (pipe[3] - pipe[1]) / 2.0);
+            }
         }
 
         // door
-        StdDraw.setPenColor(StdDraw.GREEN);
-        StdDraw.filledRectangle((door[0] + door[2]) / 2.0, (door[1] + door[3]) / 2.0,
-                (door[2] - door[0]) / 2.0, (door[3] - door[1]) / 2.0);
-
-        // button
-        if (!isButtonPressing) {
-            StdDraw.setPenColor(StdDraw.RED);
-            StdDraw.filledRectangle((button[0] + button[2]) / 2.0, (button[1] + button[3]) / 2.0,
+        if (camera.isVisible(door)) {
+            renderer.setPenColor(Color.GREEN);
+            renderer.filledRectangle((door[0] + door[2]) / 2.0, (door[1] + door[3]) / 2.0,
+                    (door[2] - door[0]) / 2.0, (door[3] - door[1]) / 2.0);
+        }
+
+        // button, hidden while pressed unless it is still moving down or up
+        if ((!isButtonPressing || tweens.isRunning(button, 3)) && camera.isVisible(button)) {
+            renderer.setPenColor(Color.RED);
+            renderer.filledRectangle((button[0] + button[2]) / 2.0, (button[1] + button[3]) / 2.0,
                     (button[2] - button[0]) / 2.0, (button[3] - button[1]) / 2.0);
         }
         // button floor
-        StdDraw.setPenColor(new Color(22,22,100));
-        StdDraw.filledRectangle((buttonFloor[0] + buttonFloor[2]) / 2.0, (buttonFloor[1] + buttonFloor[3]) / 2.0,
-                (buttonFloor[2] - buttonFloor[0]) / 2.0, (buttonFloor[3] - buttonFloor[1]) / 2.0);
+        if (camera.isVisible(buttonFloor)) {
+            renderer.setPenColor(new Color(22,22,100));
+            renderer.filledRectangle((buttonFloor[0] + buttonFloor[2]) / 2.0, (buttonFloor[1] + buttonFloor[3]) / 2.0,
+                    (buttonFloor[2] - buttonFloor[0]) / 2.0, (buttonFloor[3] - buttonFloor[1]) / 2.0);
+        }
 
     }
 
@@ -0,0 +1,149 @@
+import java.util.Arrays;
+
+/**
+ * The physics and rules a map plays by, resolved once from a stage and its rules when the map is created.
+ * It starts from the stage's gravity and speeds with the ordinary rules, and every StageRule
+ * of the stage changes some of the values or plugs a hook into one of the points where the map
+ * asks for behaviour: after a key moves a player, when a player is on the ground, and when a deep
+ * overlap with an obstacle is resolved. The map runs the hooks without knowing which rules there are,
+ * so a new mechanic is a new rule, and a stage without rules runs no hooks at all.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Mechanics {
+
+    // DATA FIELDS of the class
+    private double gravity;
+    private double velocityX;
+    private double velocityY;
+    private int buttonPresses = 1; // presses needed to open the door
+
+    // Hooks plugged in by the rules, run in the order of the rules
+    private StageRule.KeyHook[] keyHooks = new StageRule.KeyHook[0];
+    private StageRule.PlayerHook[] groundHooks = new StageRule.PlayerHook[0];
+    private StageRule.OverlapHook[] overlapHooks = new StageRule.OverlapHook[0];
+
+
+    /**
+     * Resolves the mechanics of a stage: its physics changed by each of its rules in order.
+     *
+     * @param stage The stage.
+     */
+    public Mechanics(Stage stage) {
+        this.gravity = stage.getGravity();
+        this.velocityX = stage.getVelocityX();
+        this.velocityY = stage.getVelocityY();
+        for (StageRule rule : stage.getRules()) {
+            rule.apply(this);
+        }
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Gravity added to the vertical velocity every tick.
+     */
+    public double getGravity(){return gravity;}
+    /**
+     * @return Horizontal movement speed.
+     */
+    public double getVelocityX(){return velocityX;}
+    /**
+     * @return Vertical jump speed.
+     */
+    public double getVelocityY(){return velocityY;}
+    /**
+     * @return Number of button presses that open the door.
+     */
+    public int getButtonPresses(){return buttonPresses;}
+
+    // SETTER METHODS
+    /**
+     * @param gravity Gravity added to the vertical velocity every tick.
+     */
+    public void setGravity(double gravity){this.gravity = gravity;}
+    /**
+     * @param velocityX Horizontal movement speed.
+     */
+    public void setVelocityX(double velocityX){this.velocityX = velocityX;}
+    /**
+     * @param velocityY Vertical jump speed.
+     */
+    public void setVelocityY(double velocityY){this.velocityY = velocityY;}
+    /**
+     * @param buttonPresses Number of button presses that open the door, at least 1.
+     */
+    public void setButtonPresses(int buttonPresses) {
+        if (buttonPresses < 1) {
+            throw new IllegalArgumentException("the door needs at least one button press");
+        }
+        this.buttonPresses = buttonPresses;
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * @param hook Run after a key of the player's key set moved the player.
+     */
+    public void addKeyHook(StageRule.KeyHook hook) {
+        keyHooks = Arrays.copyOf(keyHooks, keyHooks.length + 1);
+        keyHooks[keyHooks.length - 1] = hook;
+    }
+
+    /**
+     * @param hook Run when a player lands, and after every move of a player standing on the ground.
+     */
+    public void addGroundHook(StageRule.PlayerHook hook) {
+        groundHooks = Arrays.copyOf(groundHooks, groundHooks.length + 1);
+        groundHooks[groundHooks.length - 1] = hook;
+    }
+
+    /**
+     * @param hook Decides whether an overlap with an obstacle is resolved up or down only.
+     */
+    public void addOverlapHook(StageRule.OverlapHook hook) {
+        overlapHooks = Arrays.copyOf(overlapHooks, overlapHooks.length + 1);
+        overlapHooks[overlapHooks.length - 1] = hook;
+    }
+
+    /**
+     * Runs the key hooks.
+     *
+     * @param player    The player the key moved.
+     * @param direction Direction of the key ('L', 'R', 'U').
+     */
+    public void keyMoved(Player player, char direction) {
+        for (StageRule.KeyHook hook : keyHooks) {
+            hook.run(player, direction);
+        }
+    }
+
+    /**
+     * Runs the ground hooks.
+     *
+     * @param player The player on the ground.
+     */
+    public void onGround(Player player) {
+        for (StageRule.PlayerHook hook : groundHooks) {
+            hook.run(player, this);
+        }
+    }
+
+    /**
+     * Asks the overlap hooks how to resolve an overlap with an obstacle.
+     *
+     * @param leftPenetration  How far the player reaches into the obstacle from its left side.
+     * @param rightPenetration How far the player reaches into the obstacle from its right side.
+     * @return true if a hook wants the overlap resolved up or down only.
+     */
+    public boolean isVerticalOverlap(double leftPenetration, double rightPenetration) {
+        for (StageRule.OverlapHook hook : overlapHooks) {
+            if (hook.isVertical(leftPenetration, rightPenetration)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,126 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+
+/**
+ * A backend that draws nothing and reports no input, for headless runs such as
+ * bot games and benchmarks of everything except drawing.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class NullRenderer implements Renderer, InputSource {
+
+    /**
+     * Opens nothing.
+     * @param width  Ignored.
+     * @param height Ignored.
+     */
+    public void open(int width, int height){}
+
+    /**
+     * @param xMin Ignored.
+     * @param xMax Ignored.
+     * @param yMin Ignored.
+     * @param yMax Ignored.
+     */
+    public void setScale(double xMin, double xMax, double yMin, double yMax){}
+
+    /**
+     * Does nothing.
+     */
+    public void clear(){}
+
+    /**
+     * @param color Ignored.
+     */
+    public void setPenColor(Color color){}
+
+    /**
+     * @param font Ignored.
+     */
+    public void setFont(Font font){}
+
+    /**
+     * @param x          Ignored.
+     * @param y          Ignored.
+     * @param halfWidth  Ignored.
+     * @param halfHeight Ignored.
+     */
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight){}
+
+    /**
+     * @param x          Ignored.
+     * @param y          Ignored.
+     * @param halfWidth  Ignored.
+     * @param halfHeight Ignored.
+     */
+    public void rectangle(double x, double y, double halfWidth, double halfHeight){}
+
+    /**
+     * @param x    Ignored.
+     * @param y    Ignored.
+     * @param text Ignored.
+     */
+    public void text(double x, double y, String text){}
+
+    /**
+     * @param x       Ignored.
+     * @param y       Ignored.
+     * @param name    Ignored.
+     * @param width   Ignored.
+     * @param height  Ignored.
+     * @param degrees Ignored.
+     */
+    public void picture(double x, double y, String name, double width, double height, double degrees){}
+
+    /**
+     * @param x      Ignored.
+     * @param y      Ignored.
+     * @param image  Ignored.
+     * @param width  Ignored.
+     * @param height Ignored.
+     */
+    public void image(double x, double y, BufferedImage image, double width, double height){}
+
+    /**
+     * @return true, images are ignored like everything else.
+     */
+    public boolean getCanDrawImages(){return true;}
+
+    /**
+     * @return 1.
+     */
+    public int getImageScale(){return 1;}
+
+    /**
+     * Does nothing.
+     */
+    public void show(){}
+
+    /**
+     * @return This backend, which never reports input.
+     */
+    public InputSource getInput(){return this;}
+
+    /**
+     * @param keyCode Ignored.
+     * @return false
+     */
+    public boolean isKeyPressed(int keyCode){return false;}
+
+    /**
+     * @return false
+     */
+    public boolean isMousePressed(){return false;}
+
+    /**
+     * @return 0
+     */
+    public double mouseX(){return 0;}
+
+    /**
+     * @return 0
+     */
+    public double mouseY(){return 0;}
+
+}
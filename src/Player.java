@@ -16,6 +16,8 @@ public class Player {
     private boolean isJumping = false;
     private boolean isFacingRight = true;
     private boolean isOnGround = true;
+    private double previousX; // position before the last step, to draw frames between two steps
+    private double previousY;
 
 
     /**
@@ -27,6 +29,8 @@ public class Player {
     public Player(double x, double y){
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
     }
 
 
@@ -51,6 +55,10 @@ public class Player {
      * @return Whether the player is currently jumping.
      */
     public boolean getIsJumping(){return isJumping;}
+    /**
+     * @return Current horizontal velocity.
+     */
+    public double getVelocityX() {return velocityX;}
     /**
      * @return Current vertical velocity.
      */
@@ -59,6 +67,24 @@ public class Player {
      * @return Whether the player is currently on the ground.
      */
     public boolean getIsOnGround() {return isOnGround;}
+    /**
+     * @return true if the player looks to the right.
+     */
+    public boolean getIsFacingRight() {return isFacingRight;}
+    /**
+     * @return true if the player moved in the last step, so frames before the next step differ.
+     */
+    public boolean getIsMoving(){return x != previousX || y != previousY;}
+    /**
+     * @param alpha Fraction of a step passed since the last step, 1 for the current position.
+     * @return x where the player is drawn, between its positions before and after the last step.
+     */
+    public double getDrawX(double alpha){return previousX + (x - previousX) * alpha;}
+    /**
+     * @param alpha Fraction of a step passed since the last step, 1 for the current position.
+     * @return y where the player is drawn, between its positions before and after the last step.
+     */
+    public double getDrawY(double alpha){return previousY + (y - previousY) * alpha;}
 
     // SETTER METHODS
     /**
@@ -108,20 +134,43 @@ public class Player {
     public void respawn(double[] spawnPoint){
         this.x = spawnPoint[0];
         this.y = spawnPoint[1];
+        this.previousX = x; // a respawn is a jump, not a motion to draw
+        this.previousY = y;
         this.velocityX = 0;
         this.velocityY = 0;
         isJumping = false;
         isOnGround = true;
     }
 
+    /**
+     * Remembers the position at the start of a step, so frames drawn before the next step
+     * can place the player between the two positions.
+     */
+    public void savePosition() {
+        previousX = x;
+        previousY = y;
+    }
+
     /**
      * Draws the player on screen depending on the direction.
+     *
+     * @param renderer The renderer to draw with.
+     */
+    public void draw(Renderer renderer){
+        draw(renderer, 1);
+    }
+
+    /**
+     * Draws the player between its positions before and after the last step, depending on the direction.
+     *
+     * @param renderer The renderer to draw with.
+     * @param alpha    Fraction of a step passed since the last step, 1 for the current position.
      */
-    public void draw(){
+    public void draw(Renderer renderer, double alpha){
         if (isFacingRight) {
-            StdDraw.picture(x, y, "misc/ElephantRight.png", 20, 20);
+            renderer.picture(getDrawX(alpha), getDrawY(alpha), "misc/ElephantRight.png", 20, 20, 0);
         } else {
-            StdDraw.picture(x, y, "misc/ElephantLeft.png", 20, 20);
+            renderer.picture(getDrawX(alpha), getDrawY(alpha), "misc/ElephantLeft.png", 20, 20, 0);
         }
     }
 
@@ -168,4 +217,18 @@ public class Player {
         y += velocityY;
     }
 
+    /**
+     * Applies one of several equal gravity steps of a frame, so collisions can be checked between them.
+     * The velocity gains gravity / substeps per step, and the position moves by its share of the velocity
+     * plus a constant that makes the path meet the one of applyGravity(gravity) at the end of every frame,
+     * so jumps stay as high and as long as with one step. With 1 substep it is applyGravity(gravity).
+     *
+     * @param gravity  The gravity acceleration value per frame.
+     * @param substeps Number of steps the frame is split into.
+     */
+    public void applyGravity(double gravity, int substeps) {
+        velocityY += gravity / substeps;
+        y += (velocityY + gravity * (substeps - 1) / (2.0 * substeps)) / substeps;
+    }
+
 }
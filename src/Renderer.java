@@ -0,0 +1,122 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+
+/**
+ * Drawing backend of the game.
+ * The methods follow StdDraw: coordinates are in a user scale with y growing upwards,
+ * rectangles are given by their center and half sizes and text is centered on its point.
+ * Nothing is visible until show() is called.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public interface Renderer {
+
+    /**
+     * Opens the drawing surface.
+     *
+     * @param width  Width in pixels.
+     * @param height Height in pixels.
+     */
+    void open(int width, int height);
+
+    /**
+     * Sets the user coordinates that map to the edges of the surface.
+     *
+     * @param xMin x coordinate of the left edge.
+     * @param xMax x coordinate of the right edge.
+     * @param yMin y coordinate of the bottom edge.
+     * @param yMax y coordinate of the top edge.
+     */
+    void setScale(double xMin, double xMax, double yMin, double yMax);
+
+    /**
+     * Clears the frame to white.
+     */
+    void clear();
+
+    /**
+     * @param color Color of the following shapes and text.
+     */
+    void setPenColor(Color color);
+
+    /**
+     * @param font Font of the following text.
+     */
+    void setFont(Font font);
+
+    /**
+     * Draws a filled rectangle.
+     *
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    void filledRectangle(double x, double y, double halfWidth, double halfHeight);
+
+    /**
+     * Draws the outline of a rectangle.
+     *
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    void rectangle(double x, double y, double halfWidth, double halfHeight);
+
+    /**
+     * Draws text centered on a point.
+     *
+     * @param x    x of the center.
+     * @param y    y of the center.
+     * @param text The text.
+     */
+    void text(double x, double y, String text);
+
+    /**
+     * Draws a picture scaled to the given size and rotated counterclockwise around its center.
+     *
+     * @param x       x of the center.
+     * @param y       y of the center.
+     * @param name    File name of the picture (e.g. "misc/Spikes.png").
+     * @param width   Width in user coordinates.
+     * @param height  Height in user coordinates.
+     * @param degrees Rotation in degrees.
+     */
+    void picture(double x, double y, String name, double width, double height, double degrees);
+
+    /**
+     * Draws an image held in memory, scaled to the given size. The image is not cached,
+     * so its owner may draw into it between frames. Only call it if getCanDrawImages() is true.
+     *
+     * @param x      x of the center.
+     * @param y      y of the center.
+     * @param image  The image.
+     * @param width  Width in user coordinates.
+     * @param height Height in user coordinates.
+     */
+    void image(double x, double y, BufferedImage image, double width, double height);
+
+    /**
+     * @return true if image() can be used, false if the backend only draws pictures from files.
+     */
+    boolean getCanDrawImages();
+
+    /**
+     * @return Pixels of the frame per screen unit, so images drawn with image() can be made
+     *         sharp: 1 for most backends, 2 for a buffer of double resolution.
+     */
+    int getImageScale();
+
+    /**
+     * Makes the drawn frame visible.
+     */
+    void show();
+
+    /**
+     * @return The keyboard and mouse of this backend's window.
+     */
+    InputSource getInput();
+
+}
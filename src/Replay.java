@@ -0,0 +1,271 @@
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+/**
+ * Records the input of a run, or plays a recorded one back, one game step at a time.
+ * Every step stores its step time, one bit per watched key and the mouse, so a run
+ * can be replayed exactly: the physics only depends on the input and the step times.
+ * The file starts with the command-line options of the recorded game, which rebuild the same level.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Replay implements InputSource {
+
+    // DATA FIELDS of the class
+    private static final int MAGIC = 0x52504c31; // "RPL1"
+    private static final long MOUSE_BIT = 1L << 63;
+    private String options;
+    private int[] keyCodes;   // bit i of a frame's key mask is keyCodes[i]
+    private InputSource source; // live input while recording
+    private DataOutputStream out; // null when playing back
+    private DataInputStream in;   // null when recording
+    private long keys = 0;
+    private boolean isMousePressed = false;
+    private double mouseX = 0;
+    private double mouseY = 0;
+    private int frameCount = 0;
+    private boolean isExhausted = false;
+
+
+    /**
+     * Constructs a replay around an open file.
+     *
+     * @param options  Command-line options of the game.
+     * @param keyCodes Watched key codes.
+     * @param out      File being recorded, or null.
+     * @param in       File being played back, or null.
+     */
+    private Replay(String options, int[] keyCodes, DataOutputStream out, DataInputStream in) {
+        this.options = options;
+        this.keyCodes = keyCodes;
+        this.out = out;
+        this.in = in;
+    }
+
+    /**
+     * Starts recording a run.
+     *
+     * @param path     File to record to.
+     * @param options  Command-line options that rebuild the game (level, players, frame rate).
+     * @param keyCodes Key codes to record, at most 63.
+     * @return The recording replay; set its source with setSource().
+     * @throws IOException if the file cannot be created.
+     */
+    public static Replay record(String path, String options, int[] keyCodes) throws IOException {
+        if (keyCodes.length > 63) {
+            throw new IllegalArgumentException("at most 63 keys can be recorded, not " + keyCodes.length);
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        out.writeInt(MAGIC);
+        out.writeUTF(options);
+        out.writeInt(keyCodes.length);
+        for (int keyCode : keyCodes) {
+            out.writeInt(keyCode);
+        }
+        Replay replay = new Replay(options, keyCodes, out, null);
+        // Closing the window ends the program without returning to the game loop
+        Runtime.getRuntime().addShutdownHook(new Thread(replay::close));
+        return replay;
+    }
+
+    /**
+     * Opens a recorded run for playing back.
+     *
+     * @param path The recorded file.
+     * @return The replay, positioned before its first frame.
+     * @throws IOException if the file cannot be read or is not a replay.
+     */
+    public static Replay open(String path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        if (in.readInt() != MAGIC) {
+            in.close();
+            throw new IOException(path + " is not a replay");
+        }
+        String options = in.readUTF();
+        int[] keyCodes = new int[in.readInt()];
+        for (int i = 0; i < keyCodes.length; i++) {
+            keyCodes[i] = in.readInt();
+        }
+        return new Replay(options, keyCodes, null, in);
+    }
+
+    /**
+     * @param stages The stages of the game.
+     * @return Every key the game reads: the key sets of all stages and the end screen keys.
+     */
+    public static int[] watchedKeys(ArrayList<Stage> stages) {
+        TreeSet<Integer> codes = new TreeSet<Integer>();
+        for (Stage stage : stages) {
+            for (int player = 0; player < stage.getPlayerCount(); player++) {
+                for (int keyCode : stage.getKeyCodes(player)) {
+                    if (keyCode >= 0) {
+                        codes.add(keyCode);
+                    }
+                }
+            }
+        }
+        codes.add(KeyEvent.VK_Q);
+        codes.add(KeyEvent.VK_A);
+        int[] keyCodes = new int[codes.size()];
+        int i = 0;
+        for (int keyCode : codes) {
+            keyCodes[i++] = keyCode;
+        }
+        return keyCodes;
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Command-line options of the recorded game.
+     */
+    public String getOptions(){return options;}
+    /**
+     * @return Number of frames recorded or played back so far.
+     */
+    public int getFrameCount(){return frameCount;}
+    /**
+     * @return true when a played back replay has no frames left.
+     */
+    public boolean getIsExhausted(){return isExhausted;}
+
+
+    // SETTER METHODS
+    /**
+     * @param source Live input that is recorded; not used when playing back.
+     */
+    public void setSource(InputSource source){this.source = source;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Moves to the next frame: records the live input, or reads the recorded input.
+     *
+     * @param deltaTime Measured nanoseconds since the previous frame.
+     * @return The frame time to use: the measured one when recording, the recorded one when playing back
+     *         (0 once the replay is exhausted).
+     */
+    public synchronized long nextTick(long deltaTime) {
+        try {
+            if (out != null) {
+                recordTick(deltaTime);
+                return deltaTime;
+            }
+            return readTick();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finishes the file.
+     */
+    public synchronized void close() {
+        try {
+            if (out != null) {
+                out.close();
+            } else {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param keyCode A KeyEvent key code.
+     * @return true if the key was held down in this frame.
+     */
+    public boolean isKeyPressed(int keyCode) {
+        for (int i = 0; i < keyCodes.length; i++) {
+            if (keyCodes[i] == keyCode) {
+                return (keys & (1L << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a mouse button was held down in this frame.
+     */
+    public boolean isMousePressed(){return isMousePressed;}
+
+    /**
+     * @return x coordinate of the mouse in this frame.
+     */
+    public double mouseX(){return mouseX;}
+
+    /**
+     * @return y coordinate of the mouse in this frame.
+     */
+    public double mouseY(){return mouseY;}
+
+    /**
+     * Samples the live input into this frame and writes it.
+     *
+     * @param deltaTime Nanoseconds since the previous frame.
+     * @throws IOException if the frame cannot be written.
+     */
+    private void recordTick(long deltaTime) throws IOException {
+        keys = 0;
+        for (int i = 0; i < keyCodes.length; i++) {
+            if (source.isKeyPressed(keyCodes[i])) {
+                keys |= 1L << i;
+            }
+        }
+        isMousePressed = source.isMousePressed();
+        mouseX = source.mouseX();
+        mouseY = source.mouseY();
+
+        out.writeLong(deltaTime);
+        out.writeLong(isMousePressed ? keys | MOUSE_BIT : keys);
+        if (isMousePressed) { // the position only matters for clicks
+            out.writeDouble(mouseX);
+            out.writeDouble(mouseY);
+        }
+        frameCount++;
+    }
+
+    /**
+     * Reads the input of the next frame.
+     *
+     * @return Recorded nanoseconds since the previous frame, 0 if there are no frames left.
+     * @throws IOException if the file cannot be read.
+     */
+    private long readTick() throws IOException {
+        if (isExhausted) {
+            return 0;
+        }
+        long deltaTime;
+        long mask;
+        try {
+            deltaTime = in.readLong();
+            mask = in.readLong();
+        } catch (EOFException e) {
+            isExhausted = true;
+            keys = 0;
+            isMousePressed = false;
+            return 0;
+        }
+        keys = mask & ~MOUSE_BIT;
+        isMousePressed = (mask & MOUSE_BIT) != 0;
+        if (isMousePressed) {
+            mouseX = in.readDouble();
+            mouseY = in.readDouble();
+        }
+        frameCount++;
+        return deltaTime;
+    }
+
+}
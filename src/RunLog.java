@@ -0,0 +1,93 @@
+import java.io.PrintStream;
+
+/**
+ * A consumer of the game's events that writes one line per event, such as
+ * "00:12:34 stage 1 STAGE_CLEAR 12340", on its own thread so the game never waits for the output.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class RunLog implements EventBus.Handler {
+
+    // DATA FIELDS of the class
+    private EventBus.Subscription subscription;
+    private PrintStream out;
+    private int periodMillis;
+    private Thread thread;
+    private volatile boolean isRunning = false;
+
+
+    /**
+     * Constructs a log of a bus's events.
+     *
+     * @param events       The bus to read.
+     * @param out          Where the lines go.
+     * @param periodMillis Milliseconds between two reads of the bus.
+     */
+    public RunLog(EventBus events, PrintStream out, int periodMillis) {
+        this.subscription = events.subscribe();
+        this.out = out;
+        this.periodMillis = periodMillis;
+    }
+
+
+    // OTHER METHODS
+
+    /**
+     * Starts writing the events on a background thread.
+     */
+    public void start() {
+        isRunning = true;
+        thread = new Thread(() -> {
+            while (isRunning) {
+                drain();
+                try {
+                    Thread.sleep(periodMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            drain();
+        }, "run-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writes the remaining events and stops the background thread.
+     */
+    public void stop() {
+        isRunning = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes every event published since the last read.
+     */
+    public void drain() {
+        long dropped = subscription.getDropped();
+        subscription.poll(this);
+        if (subscription.getDropped() > dropped) {
+            out.println("(" + (subscription.getDropped() - dropped) + " events lost)");
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes one event.
+     *
+     * @param type  Kind of the event.
+     * @param stage Index of the stage it happened in.
+     * @param time  Game clock time in nanoseconds.
+     * @param value Value of the event.
+     */
+    public void onEvent(EventType type, int stage, long time, int value) {
+        out.println(GameClock.format(time) + " stage " + (stage + 1) + " " + type + " " + value);
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * A uniform grid over a list of axis aligned rectangles.
+ * Each cell stores the indices of the rectangles overlapping it, so that
+ * a region query only visits the rectangles near that region instead of all of them.
+ * Rectangle format is the same as in Map: int[] = {xLeftDown, yLeftDown, xRightUp, yRightUp}
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class SpatialGrid {
+
+    // DATA FIELDS of the class
+    private int[][] rects;
+    private int cellSize;
+    private int cols;
+    private int rows;
+    private int[][] cells; // cells[row * cols + col] = indices of the rectangles in that cell
+
+
+    /**
+     * Builds the grid for the given rectangles.
+     *
+     * @param rects    Rectangles to index (they are referenced, not copied).
+     * @param width    Width of the indexed area.
+     * @param height   Height of the indexed area.
+     * @param cellSize Side length of one cell.
+     */
+    public SpatialGrid(int[][] rects, int width, int height, int cellSize) {
+        this.rects = rects;
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (width  + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+
+        // First pass counts the rectangles per cell, second pass fills them
+        int[] counts = new int[cols * rows];
+        for (int[] rect : rects) {
+            for (int row = rowOf(rect[1]); row <= lastRowOf(rect[3]); row++) {
+                for (int col = colOf(rect[0]); col <= lastColOf(rect[2]); col++) {
+                    counts[row * cols + col]++;
+                }
+            }
+        }
+        cells = new int[cols * rows][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int index = 0; index < rects.length; index++) {
+            int[] rect = rects[index];
+            for (int row = rowOf(rect[1]); row <= lastRowOf(rect[3]); row++) {
+                for (int col = colOf(rect[0]); col <= lastColOf(rect[2]); col++) {
+                    int cell = row * cols + col;
+                    cells[cell][counts[cell]++] = index;
+                }
+            }
+        }
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return The indexed rectangles.
+     */
+    public int[][] getRects(){return rects;}
+    /**
+     * @return Side length of one cell.
+     */
+    public int getCellSize(){return cellSize;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Collects the indices of the rectangles whose cells overlap the given region.
+     * The result is conservative: callers do the exact overlap test themselves.
+     * Every rectangle is reported once, so the method keeps no state and is safe
+     * to call from several threads at the same time.
+     *
+     * @param left   Left edge of the region.
+     * @param bottom Bottom edge of the region.
+     * @param right  Right edge of the region.
+     * @param top    Top edge of the region.
+     * @param out    Buffer for the indices, at least as long as the rectangle list.
+     * @return Number of indices written to out.
+     */
+    public int query(double left, double bottom, double right, double top, int[] out) {
+        int firstCol = colOf(left);
+        int lastCol  = lastColOf(right);
+        int firstRow = rowOf(bottom);
+        int lastRow  = lastRowOf(top);
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                for (int index : cells[row * cols + col]) {
+                    int[] rect = rects[index];
+                    // Report a rectangle only from the first visited cell it covers
+                    if (Math.max(colOf(rect[0]), firstCol) == col && Math.max(rowOf(rect[1]), firstRow) == row) {
+                        out[count++] = index;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param x World x coordinate.
+     * @return Column containing x, clamped to the grid.
+     */
+    private int colOf(double x) {
+        return clamp((int) Math.floor(x / cellSize), cols);
+    }
+
+    /**
+     * @param x Right edge in world coordinates (exclusive).
+     * @return Last column touched by an edge ending at x, clamped to the grid.
+     */
+    private int lastColOf(double x) {
+        return clamp((int) Math.ceil(x / cellSize) - 1, cols);
+    }
+
+    /**
+     * @param y World y coordinate.
+     * @return Row containing y, clamped to the grid.
+     */
+    private int rowOf(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    /**
+     * @param y Top edge in world coordinates (exclusive).
+     * @return Last row touched by an edge ending at y, clamped to the grid.
+     */
+    private int lastRowOf(double y) {
+        return clamp((int) Math.ceil(y / cellSize) - 1, rows);
+    }
+
+    /**
+     * @param value Cell coordinate.
+     * @param size  Number of cells in that direction.
+     * @return value limited to [0, size - 1].
+     */
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+}
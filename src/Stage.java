@@ -1,9 +1,12 @@
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Represents a stage in the game.
  * Stores properties such as gravity, movement speeds, key codes,
  * clue/help text, stage number, and obstacle color.
+ * Special behaviour such as reversed controls is added as StageRule objects.
  * author Melih Efe Sonmez
  * since Date: 18.04.2025
  */
@@ -14,12 +17,11 @@ public class Stage {
     private double gravity;
     private double velocityX;
     private double velocityY;
-    private int rightCode;
-    private int leftCode;
-    private int upCode;
+    private int[][] keyCodes = new int[1][]; // one {right, left, up} row per local player
     private String clue;
     private String help;
     private Color color;
+    private ArrayList<StageRule> rules = new ArrayList<StageRule>();
 
 
     /**
@@ -43,9 +45,7 @@ public class Stage {
         this.velocityX = velocityX;
         this.velocityY = velocityY;
         this.stageNumber = stageNumber;
-        this.rightCode = rightCode;
-        this.leftCode = leftCode;
-        this.upCode = upCode;
+        this.keyCodes[0] = new int[]{rightCode, leftCode, upCode};
         this.clue = clue;
         this.help = help;
         this.color = new Color((int)(Math.random()*256),
@@ -83,7 +83,16 @@ public class Stage {
     /**
      * @return The key codes for right, left, and up movement.
      */
-    public int[] getKeyCodes(){return new int[]{rightCode, leftCode, upCode};} // keyCodes are KeyEvent.VK_RIGHT, KeyEvent.VK_A etc.
+    public int[] getKeyCodes(){return getKeyCodes(0);} // keyCodes are KeyEvent.VK_RIGHT, KeyEvent.VK_A etc.
+    /**
+     * @param player Index of the local player.
+     * @return The key codes for right, left, and up movement of that player.
+     */
+    public int[] getKeyCodes(int player){return keyCodes[player];}
+    /**
+     * @return Number of local players that have a key set in this stage.
+     */
+    public int getPlayerCount(){return keyCodes.length;}
     /**
      * @return The clue text for this stage.
      */
@@ -96,5 +105,40 @@ public class Stage {
      * @return The obstacle color for this stage.
      */
     public Color getColor(){return color;}
+    /**
+     * @return The special rules of this stage, in the order they are applied.
+     */
+    public ArrayList<StageRule> getRules(){return rules;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Adds the key set of one more local player.
+     *
+     * @param rightCode The key code for moving right.
+     * @param leftCode  The key code for moving left.
+     * @param upCode    The key code for jumping (up).
+     */
+    public void addKeyCodes(int rightCode, int leftCode, int upCode){
+        keyCodes = Arrays.copyOf(keyCodes, keyCodes.length + 1);
+        keyCodes[keyCodes.length - 1] = new int[]{rightCode, leftCode, upCode};
+    }
+
+    /**
+     * Adds a special rule, applied after the ones added before it.
+     *
+     * @param rule The rule.
+     */
+    public void addRule(StageRule rule){
+        rules.add(rule);
+    }
+
+    /**
+     * @return The mechanics of this stage with all of its rules applied.
+     */
+    public Mechanics resolveMechanics(){
+        return new Mechanics(this);
+    }
 
 }
@@ -0,0 +1,104 @@
+/**
+ * A special rule of a stage, such as reversed controls or constant bouncing.
+ * Rules are added to a stage with Stage.addRule() and applied in order to the Mechanics of every
+ * map of the stage. A rule changes the stage's values or plugs hooks into the mechanics, which the
+ * map runs at fixed points of a tick, so a new rule needs no change to Mechanics or Map.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public interface StageRule {
+
+    /**
+     * Behaviour run after a key moved a player.
+     */
+    interface KeyHook {
+        /**
+         * @param player    The player the key moved.
+         * @param direction Direction of the key ('L', 'R', 'U').
+         */
+        void run(Player player, char direction);
+    }
+
+    /**
+     * Behaviour run for a player, e.g. when it is on the ground.
+     */
+    interface PlayerHook {
+        /**
+         * @param player    The player.
+         * @param mechanics The mechanics of the map, for its speeds.
+         */
+        void run(Player player, Mechanics mechanics);
+    }
+
+    /**
+     * Decides how a deep overlap with an obstacle is resolved.
+     */
+    interface OverlapHook {
+        /**
+         * @param leftPenetration  How far the player reaches into the obstacle from its left side.
+         * @param rightPenetration How far the player reaches into the obstacle from its right side.
+         * @return true to push the player up or down only, false to leave the choice to the smallest overlap.
+         */
+        boolean isVertical(double leftPenetration, double rightPenetration);
+    }
+
+    /**
+     * Changes the mechanics of the stage.
+     *
+     * @param mechanics The mechanics being resolved.
+     */
+    void apply(Mechanics mechanics);
+
+    /**
+     * Players steered by keys face away from the key they press. Swapping the keys themselves
+     * is done by the key codes of the stage, so bots and environments keep meaning "right" by right.
+     *
+     * @return The rule.
+     */
+    static StageRule reversedFacing() {
+        return mechanics -> mechanics.addKeyHook((player, direction) -> {
+            if (direction == 'L') {
+                player.setIsFacingRight(true);
+            } else if (direction == 'R') {
+                player.setIsFacingRight(false);
+            }
+        });
+    }
+
+    /**
+     * Players jump whenever they touch the ground, so the up key is not needed.
+     *
+     * @return The rule.
+     */
+    static StageRule autoJump() {
+        return mechanics -> mechanics.addGroundHook((player, resolved) -> player.jump(resolved.getVelocityY()));
+    }
+
+    /**
+     * Overlaps deeper than 5 pixels from both sides are resolved up or down, which keeps
+     * fast falling players from being pushed through the side of an obstacle.
+     *
+     * @return The rule.
+     */
+    static StageRule verticalCollisions() {
+        return mechanics -> mechanics.addOverlapHook((leftPenetration, rightPenetration) ->
+                leftPenetration > 5 && rightPenetration > 5);
+    }
+
+    /**
+     * @param presses Number of presses that open the door.
+     * @return The rule.
+     */
+    static StageRule buttonPresses(int presses) {
+        return mechanics -> mechanics.setButtonPresses(presses);
+    }
+
+    /**
+     * @param gravity Gravity to use instead of the stage's.
+     * @return The rule.
+     */
+    static StageRule gravity(double gravity) {
+        return mechanics -> mechanics.setGravity(gravity);
+    }
+
+}
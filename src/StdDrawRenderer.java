@@ -0,0 +1,218 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.swing.ImageIcon;
+
+/**
+ * The original backend: every call goes to StdDraw, which draws into its
+ * offscreen buffer and copies it to the window on show().
+ * StdDraw loads pictures by file name through the toolkit image cache, so preload() can
+ * decode the sprites on a background thread while the window opens.
+ * The cache keeps a picture by its name, so an image that changes between frames, like the
+ * HUD layer, cannot go through picture(). StdDraw has no other way to draw an image, so image()
+ * draws straight into StdDraw's offscreen buffer, which it looks up once when the window opens.
+ * If a StdDraw build has no such buffer, getCanDrawImages() is false and the HUD is drawn with text.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class StdDrawRenderer implements Renderer, InputSource {
+
+    // DATA FIELDS of the class
+    public static final String[] SPRITE_FILES = {"misc/Spikes.png", "misc/ElephantRight.png", "misc/ElephantLeft.png"};
+    private Graphics2D buffer; // StdDraw's offscreen graphics in canvas pixels, null if it was not found
+    private int bufferScale = 1; // pixels of the buffer per canvas pixel
+    private int width;
+    private int height;
+    private double xMin = 0;
+    private double xMax = 1;
+    private double yMin = 0;
+    private double yMax = 1;
+
+
+    // OTHER METHODS
+
+    /**
+     * Starts loading pictures into the toolkit image cache StdDraw.picture() reads from, on a background
+     * thread, so the first frame does not wait for the disk. Missing files are left to StdDraw to report.
+     *
+     * @param files File names of the pictures.
+     */
+    public static void preload(String... files) {
+        Thread loader = new Thread(() -> {
+            for (String file : files) {
+                if (Files.exists(Paths.get(file))) {
+                    new ImageIcon(file); // waits until the picture is decoded into the cache
+                }
+            }
+        }, "sprite-preload");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Opens the StdDraw window with double buffering.
+     *
+     * @param width  Width in pixels.
+     * @param height Height in pixels.
+     */
+    public void open(int width, int height) {
+        StdDraw.setCanvasSize(width, height);
+        StdDraw.enableDoubleBuffering();
+        this.width = width;
+        this.height = height;
+        findBuffer();
+    }
+
+    /**
+     * @param xMin x coordinate of the left edge.
+     * @param xMax x coordinate of the right edge.
+     * @param yMin y coordinate of the bottom edge.
+     * @param yMax y coordinate of the top edge.
+     */
+    public void setScale(double xMin, double xMax, double yMin, double yMax) {
+        StdDraw.setXscale(xMin, xMax);
+        StdDraw.setYscale(yMin, yMax);
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+    }
+
+    /**
+     * Clears the frame to white.
+     */
+    public void clear(){StdDraw.clear();}
+
+    /**
+     * @param color Color of the following shapes and text.
+     */
+    public void setPenColor(Color color){StdDraw.setPenColor(color);}
+
+    /**
+     * @param font Font of the following text.
+     */
+    public void setFont(Font font){StdDraw.setFont(font);}
+
+    /**
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        StdDraw.filledRectangle(x, y, halfWidth, halfHeight);
+    }
+
+    /**
+     * @param x          x of the center.
+     * @param y          y of the center.
+     * @param halfWidth  Half of the width.
+     * @param halfHeight Half of the height.
+     */
+    public void rectangle(double x, double y, double halfWidth, double halfHeight) {
+        StdDraw.rectangle(x, y, halfWidth, halfHeight);
+    }
+
+    /**
+     * @param x    x of the center.
+     * @param y    y of the center.
+     * @param text The text.
+     */
+    public void text(double x, double y, String text){StdDraw.text(x, y, text);}
+
+    /**
+     * @param x       x of the center.
+     * @param y       y of the center.
+     * @param name    File name of the picture.
+     * @param width   Width in user coordinates.
+     * @param height  Height in user coordinates.
+     * @param degrees Rotation in degrees.
+     */
+    public void picture(double x, double y, String name, double width, double height, double degrees) {
+        StdDraw.picture(x, y, name, width, height, degrees);
+    }
+
+    /**
+     * Draws an image into StdDraw's offscreen buffer. An image with getImageScale() pixels
+     * per screen unit is copied without scaling.
+     *
+     * @param x      x of the center.
+     * @param y      y of the center.
+     * @param image  The image.
+     * @param width  Width in user coordinates.
+     * @param height Height in user coordinates.
+     */
+    public void image(double x, double y, BufferedImage image, double width, double height) {
+        if (buffer == null) {
+            throw new IllegalStateException("StdDraw's offscreen buffer was not found, check getCanDrawImages() first");
+        }
+        double left = this.width * (x - width / 2 - xMin) / (xMax - xMin);
+        double top = this.height * (yMax - y - height / 2) / (yMax - yMin);
+        buffer.drawImage(image, (int) Math.round(left), (int) Math.round(top),
+                (int) Math.round(this.width * width / (xMax - xMin)), (int) Math.round(this.height * height / (yMax - yMin)), null);
+    }
+
+    /**
+     * @return true if StdDraw's offscreen buffer was found when the window opened.
+     */
+    public boolean getCanDrawImages(){return buffer != null;}
+
+    /**
+     * @return Pixels of StdDraw's offscreen buffer per canvas pixel, 2 for its double resolution buffer.
+     */
+    public int getImageScale(){return bufferScale;}
+
+    /**
+     * Looks up the graphics and the size of StdDraw's offscreen buffer, which it creates again
+     * for every canvas size. StdDraw draws into the graphics in canvas pixels, scaled to the buffer.
+     */
+    private void findBuffer() {
+        try {
+            Field graphics = StdDraw.class.getDeclaredField("offscreen");
+            Field image = StdDraw.class.getDeclaredField("offscreenImage");
+            graphics.setAccessible(true);
+            image.setAccessible(true);
+            buffer = (Graphics2D) graphics.get(null);
+            bufferScale = Math.max(1, ((BufferedImage) image.get(null)).getWidth() / width);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            buffer = null; // another StdDraw build, the HUD falls back to text calls
+            bufferScale = 1;
+        }
+    }
+
+    /**
+     * Copies StdDraw's offscreen buffer to the window.
+     */
+    public void show(){StdDraw.show();}
+
+    /**
+     * @return StdDraw's keyboard and mouse.
+     */
+    public InputSource getInput(){return this;}
+
+    /**
+     * @param keyCode A KeyEvent key code.
+     * @return true if the key is held down.
+     */
+    public boolean isKeyPressed(int keyCode){return StdDraw.isKeyPressed(keyCode);}
+
+    /**
+     * @return true if a mouse button is held down.
+     */
+    public boolean isMousePressed(){return StdDraw.isMousePressed();}
+
+    /**
+     * @return x coordinate of the mouse.
+     */
+    public double mouseX(){return StdDraw.mouseX();}
+
+    /**
+     * @return y coordinate of the mouse.
+     */
+    public double mouseY(){return StdDraw.mouseY();}
+
+}
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * Animates int values, such as the edges of the door and the button, over the game time.
+ * A tween moves one element of an int array from its current value to a target value in a given time,
+ * shaped by an easing curve, and may run a callback when it arrives.
+ * The active tweens are kept in parallel arrays that only grow, and finished ones are swapped out,
+ * so starting and updating tweens allocates nothing, and update() returns at once when none is active.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class Tweens {
+
+    /**
+     * Shape of the motion between the start and the target.
+     */
+    public enum Easing {
+        LINEAR,      // constant speed
+        EASE_IN,     // starts slow
+        EASE_OUT,    // ends slow
+        EASE_IN_OUT; // starts and ends slow
+
+        /**
+         * @param t Fraction of the duration that passed, in [0, 1].
+         * @return Fraction of the distance covered, in [0, 1].
+         */
+        public double apply(double t) {
+            switch (this) {
+                case EASE_IN:
+                    return t * t;
+                case EASE_OUT:
+                    return t * (2 - t);
+                case EASE_IN_OUT:
+                    return t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
+                default:
+                    return t;
+            }
+        }
+    }
+
+    // DATA FIELDS of the class
+    private int count = 0; // active tweens are at indices [0, count)
+    private int[][] targets = new int[4][];
+    private int[] indices = new int[4];
+    private int[] from = new int[4];
+    private int[] to = new int[4];
+    private long[] elapsed = new long[4];
+    private long[] durations = new long[4];
+    private Easing[] easings = new Easing[4];
+    private Runnable[] callbacks = new Runnable[4];
+    private Runnable[] arrived = new Runnable[4]; // callbacks waiting for the end of an update
+
+
+    // GETTER METHODS
+    /**
+     * @return Number of tweens still running.
+     */
+    public int getActiveCount(){return count;}
+
+
+    // OTHER METHODS
+
+    /**
+     * @param target Array holding the animated value.
+     * @param index  Index of the value in the array.
+     * @return true if a tween is moving target[index].
+     */
+    public boolean isRunning(int[] target, int index){return find(target, index) >= 0;}
+
+    /**
+     * Starts moving target[index] to a value. A tween already moving that element is replaced,
+     * without running its callback, and the new one starts from where the element is now.
+     *
+     * @param target   Array holding the animated value.
+     * @param index    Index of the value in the array.
+     * @param value    Value to arrive at.
+     * @param duration Nanoseconds of game time the motion takes, 0 to jump there on the next update.
+     * @param easing   Shape of the motion.
+     * @param callback Run when the value arrives, or null.
+     */
+    public void start(int[] target, int index, int value, long duration, Easing easing, Runnable callback) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must not be negative: " + duration);
+        }
+        int slot = find(target, index);
+        if (slot < 0) {
+            if (count == targets.length) {
+                grow();
+            }
+            slot = count++;
+        }
+        targets[slot] = target;
+        indices[slot] = index;
+        from[slot] = target[index];
+        to[slot] = value;
+        elapsed[slot] = 0;
+        durations[slot] = duration;
+        easings[slot] = easing;
+        callbacks[slot] = callback;
+    }
+
+    /**
+     * Stops moving target[index] where it is, without running the callback.
+     *
+     * @param target Array holding the animated value.
+     * @param index  Index of the value in the array.
+     */
+    public void cancel(int[] target, int index) {
+        int slot = find(target, index);
+        if (slot >= 0) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Stops every tween where it is, without running the callbacks.
+     */
+    public void clear() {
+        while (count > 0) {
+            remove(count - 1);
+        }
+    }
+
+    /**
+     * Advances every tween, writes the new values and then runs the callbacks of the ones that arrived.
+     * The callbacks run after the loop, so they may start, cancel or clear tweens; new ones
+     * are updated from the next update on.
+     *
+     * @param deltaTime Nanoseconds of game time since the last update.
+     */
+    public void update(long deltaTime) {
+        int arrivedCount = 0;
+        // Backwards, so the tween swapped into a finished one's slot was already updated
+        for (int slot = count - 1; slot >= 0; slot--) {
+            elapsed[slot] += deltaTime;
+            if (elapsed[slot] < durations[slot]) {
+                double progress = easings[slot].apply((double) elapsed[slot] / durations[slot]);
+                targets[slot][indices[slot]] = from[slot] + (int) Math.round((to[slot] - from[slot]) * progress);
+                continue;
+            }
+            targets[slot][indices[slot]] = to[slot];
+            if (callbacks[slot] != null) {
+                arrived[arrivedCount++] = callbacks[slot];
+            }
+            remove(slot);
+        }
+        for (int i = 0; i < arrivedCount; i++) {
+            Runnable callback = arrived[i];
+            arrived[i] = null;
+            callback.run();
+        }
+    }
+
+    /**
+     * @param target Array holding the animated value.
+     * @param index  Index of the value in the array.
+     * @return Slot of the tween moving that value, -1 if there is none.
+     */
+    private int find(int[] target, int index) {
+        for (int slot = 0; slot < count; slot++) {
+            if (targets[slot] == target && indices[slot] == index) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the last active tween into a slot.
+     *
+     * @param slot Slot of the tween to remove.
+     */
+    private void remove(int slot) {
+        int last = --count;
+        targets[slot] = targets[last];
+        indices[slot] = indices[last];
+        from[slot] = from[last];
+        to[slot] = to[last];
+        elapsed[slot] = elapsed[last];
+        durations[slot] = durations[last];
+        easings[slot] = easings[last];
+        callbacks[slot] = callbacks[last];
+        targets[last] = null; // do not keep finished maps alive
+        callbacks[last] = null;
+    }
+
+    /**
+     * Doubles the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = targets.length * 2;
+        targets = Arrays.copyOf(targets, capacity);
+        indices = Arrays.copyOf(indices, capacity);
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        elapsed = Arrays.copyOf(elapsed, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        easings = Arrays.copyOf(easings, capacity);
+        callbacks = Arrays.copyOf(callbacks, capacity);
+        arrived = Arrays.copyOf(arrived, capacity);
+    }
+
+}
@@ -0,0 +1,338 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A batch of game environments for reinforcement learning, stepped together.
+ * Each environment is one player on its own Map, without a window or drawing.
+ * Observations, rewards and done flags are written into buffers that are allocated once,
+ * environment i using observations[i * OBSERVATION_SIZE ...], so a step allocates nothing.
+ * With more than one thread the environments are split into slices that worker threads step in parallel.
+ *
+ * Observation of an environment (all roughly in [-1, 1]):
+ * x and y in the level, horizontal and vertical velocity, on ground, door open, button pressed,
+ * x and y distance to the target (the button until the door starts opening, then the exit pipe),
+ * and the distance to the nearest spike to the left, right, below and above (1 when none is near).
+ *
+ * Actions: 0 nothing, 1 right, 2 left, 3 up, 4 right and up, 5 left and up. They press the stage's
+ * right, left and up keys, so which keyboard keys those are does not matter, but the physics of the
+ * stage (gravity, bouncing, five button presses) applies to them. A key the stage does not have, like
+ * the up key of the bouncy stage, does nothing, so e.g. "right and up" acts like "right" there.
+ * Rewards: progress towards the target, +1 when the door starts opening, +10 for reaching the exit,
+ * -1 for dying and a small cost per step. An environment that reaches the exit or runs out of steps
+ * is done and starts its next episode in the same step.
+ * author Melih Efe Sonmez
+ * since Date: 19.10.2026
+ */
+public class VecEnv {
+
+    // DATA FIELDS of the class
+    public static final int OBSERVATION_SIZE = 13;
+    public static final int ACTION_COUNT = 6;
+    private static final double HAZARD_RANGE = 200;
+    private static final long STEP_NANOS = 20_000_000L; // game time of a step, one frame at 50 Hz
+    private static final boolean[] RIGHT = {false, true, false, false, true, false};
+    private static final boolean[] LEFT  = {false, false, true, false, false, true};
+    private static final boolean[] UP    = {false, false, false, true, true, true};
+
+    private Stage stage;
+    private int[] keyCodes; // the stage's {right, left, up} keys, -1 for a key it does not have
+    private int screens; // 0 for the default level, otherwise the size of generated levels
+    private int maxSteps;
+    private int count;
+    private Map[] maps;
+    private Player[] players;
+    private Level[] levels;
+    private int[] steps;
+    private int[] deaths;
+    private double[] targetDistances;
+    private boolean[] wasDoorOpen;
+    private float[] observations;
+    private float[] rewards;
+    private boolean[] dones;
+    private int[] actions; // actions of the step being run
+
+    // Worker threads, each stepping one slice of the environments
+    private Thread[] workers;
+    private volatile long generation = 0; // incremented for every step
+    private AtomicInteger pending = new AtomicInteger();
+    private AtomicReference<Throwable> failure = new AtomicReference<Throwable>(); // first error of a worker in this step
+    private volatile Thread stepper;
+    private volatile boolean isClosed = false;
+
+
+    /**
+     * Constructs the environments. Call reset() before the first step.
+     *
+     * @param stage    The stage variant to play.
+     * @param screens  0 to play the original level, otherwise the number of screens of generated levels.
+     * @param count    Number of environments.
+     * @param maxSteps Steps after which an episode is cut off.
+     * @param threads  Number of threads stepping the environments (1 steps them on the calling thread).
+     */
+    public VecEnv(Stage stage, int screens, int count, int maxSteps, int threads) {
+        if (count < 1 || threads < 1) {
+            throw new IllegalArgumentException("at least one environment and one thread are needed");
+        }
+        this.stage = stage;
+        this.keyCodes = stage.getKeyCodes(0);
+        this.screens = screens;
+        this.count = count;
+        this.maxSteps = maxSteps;
+        this.maps = new Map[count];
+        this.players = new Player[count];
+        this.levels = new Level[count];
+        this.steps = new int[count];
+        this.deaths = new int[count];
+        this.targetDistances = new double[count];
+        this.wasDoorOpen = new boolean[count];
+        this.observations = new float[count * OBSERVATION_SIZE];
+        this.rewards = new float[count];
+        this.dones = new boolean[count];
+
+        int slices = Math.min(threads, count);
+        this.workers = new Thread[slices - 1]; // the calling thread steps the first slice
+        for (int i = 0; i < workers.length; i++) {
+            int slice = i + 1;
+            workers[i] = new Thread(() -> work(slice, slices), "env-worker-" + slice);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+
+    // GETTER METHODS
+    /**
+     * @return Number of environments.
+     */
+    public int getCount(){return count;}
+    /**
+     * @return Observations of all environments, OBSERVATION_SIZE values each, updated by reset() and step().
+     */
+    public float[] getObservations(){return observations;}
+    /**
+     * @return Reward of each environment in the last step.
+     */
+    public float[] getRewards(){return rewards;}
+    /**
+     * @return Whether each environment finished an episode in the last step.
+     */
+    public boolean[] getDones(){return dones;}
+
+
+    // OTHER METHODS
+
+    /**
+     * Starts a new episode in every environment.
+     * With generated levels, environment i plays the level generated from seed + i.
+     * The original level and the physics have nothing random, so without generated levels the seed is not used.
+     *
+     * @param seed Seed of the generated levels.
+     */
+    public void reset(long seed) {
+        ArrayList<Stage> stages = new ArrayList<Stage>();
+        stages.add(stage);
+        for (int i = 0; i < count; i++) {
+            levels[i] = screens > 0 ? new LevelGenerator(seed + i, stages).generate(screens) : Level.DEFAULT;
+            players[i] = new Player(levels[i].getSpawnPoint()[0], levels[i].getSpawnPoint()[1]);
+            maps[i] = new Map(stage, players[i], null, levels[i]); // the map counts the deaths itself
+            startEpisode(i);
+            observe(i);
+        }
+    }
+
+    /**
+     * Runs one step of every environment. An error in a worker thread is thrown here once all slices are done.
+     *
+     * @param actions Action of each environment, see the class comment.
+     */
+    public void step(int[] actions) {
+        if (actions.length < count) {
+            throw new IllegalArgumentException("one action per environment is needed");
+        }
+        if (maps[0] == null) {
+            throw new IllegalStateException("reset() must be called before step()");
+        }
+        // Checked here, a worker thread could not report it
+        for (int i = 0; i < count; i++) {
+            if (actions[i] < 0 || actions[i] >= ACTION_COUNT) {
+                throw new IllegalArgumentException("unknown action " + actions[i] + " of environment " + i);
+            }
+        }
+        this.actions = actions;
+        if (workers.length == 0) {
+            stepSlice(0, 1);
+            return;
+        }
+        stepper = Thread.currentThread();
+        pending.set(workers.length);
+        generation++; // publishes the actions to the workers
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        try {
+            stepSlice(0, workers.length + 1);
+        } finally {
+            while (pending.get() > 0) { // the workers must finish before the next step starts
+                LockSupport.park(this);
+            }
+        }
+        Throwable error = failure.getAndSet(null);
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (error != null) {
+            throw (RuntimeException) error;
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void close() {
+        isClosed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Loop of a worker thread: waits for a step and steps its slice.
+     *
+     * @param slice  Index of the slice of this worker.
+     * @param slices Number of slices.
+     */
+    private void work(int slice, int slices) {
+        long seen = 0;
+        while (!isClosed) {
+            if (generation == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = generation;
+            try {
+                stepSlice(slice, slices);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e); // thrown by step() on the calling thread
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    LockSupport.unpark(stepper);
+                }
+            }
+        }
+    }
+
+    /**
+     * Steps the environments of one slice.
+     *
+     * @param slice  Index of the slice.
+     * @param slices Number of slices.
+     */
+    private void stepSlice(int slice, int slices) {
+        int from = (int) ((long) count * slice / slices);
+        int to = (int) ((long) count * (slice + 1) / slices);
+        for (int i = from; i < to; i++) {
+            stepEnvironment(i, actions[i]);
+        }
+    }
+
+    /**
+     * Runs one step of one environment and writes its observation, reward and done flag.
+     *
+     * @param i      Index of the environment.
+     * @param action The action.
+     */
+    private void stepEnvironment(int i, int action) {
+        Map map = maps[i];
+        map.applyInput(0, RIGHT[action] && keyCodes[0] >= 0, LEFT[action] && keyCodes[1] >= 0,
+                          UP[action] && keyCodes[2] >= 0);
+        map.handleCollisions();
+        boolean isExit = map.changeStage();
+        map.updateAnimations(STEP_NANOS);
+        steps[i]++;
+
+        float reward = -0.001f;
+        if (map.getDeathCount() != deaths[i]) {
+            deaths[i] = map.getDeathCount();
+            reward -= 1;
+            wasDoorOpen[i] = false; // dying closes the door again
+            targetDistances[i] = targetDistance(i);
+        }
+        if (isDoorUnlocked(map) && !wasDoorOpen[i]) {
+            wasDoorOpen[i] = true;
+            reward += 1;
+            targetDistances[i] = targetDistance(i); // the target moved to the exit
+        }
+        double distance = targetDistance(i);
+        reward += (float) ((targetDistances[i] - distance) / 100);
+        targetDistances[i] = distance;
+
+        dones[i] = isExit || steps[i] >= maxSteps;
+        if (isExit) {
+            reward += 10;
+        }
+        rewards[i] = reward;
+        if (dones[i]) {
+            map.restartStage();
+            startEpisode(i);
+        }
+        observe(i);
+    }
+
+    /**
+     * Resets the counters of an environment whose map was just (re)started.
+     *
+     * @param i Index of the environment.
+     */
+    private void startEpisode(int i) {
+        steps[i] = 0;
+        deaths[i] = maps[i].getDeathCount();
+        wasDoorOpen[i] = false;
+        targetDistances[i] = targetDistance(i);
+    }
+
+    /**
+     * @param map The map of an environment.
+     * @return true once the door started opening, when the exit becomes the target.
+     */
+    private static boolean isDoorUnlocked(Map map) {
+        return map.getIsDoorOpening() || map.getIsDoorOpen();
+    }
+
+    /**
+     * @param i Index of the environment.
+     * @return Distance from the player to the center of its current target.
+     */
+    private double targetDistance(int i) {
+        int[] target = isDoorUnlocked(maps[i]) ? maps[i].getExitPipe()[0] : maps[i].getButton();
+        return Math.hypot((target[0] + target[2]) / 2.0 - players[i].getX(),
+                          (target[1] + target[3]) / 2.0 - players[i].getY());
+    }
+
+    /**
+     * Writes the observation of one environment.
+     *
+     * @param i Index of the environment.
+     */
+    private void observe(int i) {
+        Map map = maps[i];
+        Player player = players[i];
+        int[] target = isDoorUnlocked(map) ? map.getExitPipe()[0] : map.getButton();
+        int o = i * OBSERVATION_SIZE;
+        observations[o]      = (float) (player.getX() / levels[i].getWidth());
+        observations[o + 1]  = (float) (player.getY() / levels[i].getHeight());
+        observations[o + 2]  = (float) (player.getVelocityX() / stage.getVelocityX());
+        observations[o + 3]  = (float) (player.getVelocityY() / stage.getVelocityY());
+        observations[o + 4]  = player.getIsOnGround() ? 1 : 0;
+        observations[o + 5]  = map.getIsDoorOpen() ? 1 : 0;
+        observations[o + 6]  = map.getIsButtonPressing() ? 1 : 0;
+        observations[o + 7]  = (float) (((target[0] + target[2]) / 2.0 - player.getX()) / 800);
+        observations[o + 8]  = (float) (((target[1] + target[3]) / 2.0 - player.getY()) / 600);
+        observations[o + 9]  = (float) (map.hazardDistance(0, -1, 0, HAZARD_RANGE) / HAZARD_RANGE);
+        observations[o + 10] = (float) (map.hazardDistance(0, 1, 0, HAZARD_RANGE) / HAZARD_RANGE);
+        observations[o + 11] = (float) (map.hazardDistance(0, 0, -1, HAZARD_RANGE) / HAZARD_RANGE);
+        observations[o + 12] = (float) (map.hazardDistance(0, 0, 1, HAZARD_RANGE) / HAZARD_RANGE);
+    }
+
+}